@@ -0,0 +1,325 @@
+package io.github.angel.raa.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Procesador de anotaciones que genera el registro de rutas de cada controlador de Alba.
+ *
+ * <p>Por cada clase que extiende {@code io.github.angel.raa.core.router.Controller} y tiene métodos
+ * {@code @Get}, {@code @Post}, {@code @Put} o {@code @Delete} (o está marcada con {@code @Controller}),
+ * genera en su mismo paquete una clase {@code <Controlador>_Routes} que implementa {@code RouteRegistrar}
+ * con referencias directas a los métodos, y la declara en {@code META-INF/services}. Al crear el controlador
+ * no se recorren sus métodos por reflexión.</p>
+ *
+ * <p>Si un método o la propia clase no son accesibles desde el paquete (privados, genéricos, locales),
+ * no tienen la firma {@code Response metodo(Request)} o declaran excepciones comprobadas, se emite un aviso
+ * y el controlador sigue registrándose por reflexión.</p>
+ *
+ * <pre>{@code
+ * <annotationProcessorPaths>
+ *     <path>
+ *         <groupId>io.github.angel-raa</groupId>
+ *         <artifactId>alba-processor</artifactId>
+ *         <version>1.0-0</version>
+ *     </path>
+ * </annotationProcessorPaths>
+ * }</pre>
+ */
+public class RouteProcessor extends AbstractProcessor {
+    private static final String ANNOTATIONS = "io.github.angel.raa.annotations.";
+    private static final String CONTROLLER = "io.github.angel.raa.core.router.Controller";
+    private static final String REGISTRAR = "io.github.angel.raa.core.router.RouteRegistrar";
+    private static final String REQUEST = "io.github.angel.raa.http.Request";
+    private static final String RESPONSE = "io.github.angel.raa.http.Response";
+    /**
+     * Anotaciones de ruta en el mismo orden de prioridad que usa {@code Controller} por reflexión.
+     */
+    private static final String[] ROUTE_ANNOTATIONS = {"Get", "Post", "Put", "Delete"};
+
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(ANNOTATIONS + "Controller", ANNOTATIONS + "Get", ANNOTATIONS + "Post",
+                ANNOTATIONS + "Put", ANNOTATIONS + "Delete", ANNOTATIONS + "ValidatedRoute");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> controllers = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getQualifiedName().toString();
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS && name.equals(ANNOTATIONS + "Controller")) {
+                    controllers.add((TypeElement) element);
+                } else if (element.getKind() == ElementKind.METHOD && !name.equals(ANNOTATIONS + "Controller")) {
+                    controllers.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement controller : controllers) {
+            generate(controller);
+        }
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    private void generate(TypeElement controller) {
+        TypeMirror controllerType = processingEnv.getElementUtils().getTypeElement(CONTROLLER).asType();
+        if (!processingEnv.getTypeUtils().isSubtype(controller.asType(), controllerType)) {
+            error(controller, "Un controlador con rutas anotadas debe extender " + CONTROLLER);
+            return;
+        }
+        if (!isAccessible(controller)) {
+            warning(controller, "La clase no es accesible desde su paquete o es genérica; sus rutas se registrarán por reflexión");
+            return;
+        }
+
+        List<String> registrations = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(controller.getEnclosedElements())) {
+            AnnotationMirror route = routeAnnotation(method);
+            if (route == null) {
+                continue;
+            }
+            if (!isRouteMethod(method)) {
+                warning(method, "El método debe ser 'Response " + method.getSimpleName()
+                        + "(Request)' y no privado ni estático; las rutas de la clase se registrarán por reflexión");
+                return;
+            }
+            if (throwsCheckedException(method)) {
+                warning(method, "El método declara excepciones comprobadas, que Handler no admite; "
+                        + "las rutas de la clase se registrarán por reflexión");
+                return;
+            }
+            String httpMethod = route.getAnnotationType().asElement().getSimpleName().toString().toUpperCase();
+            String validated = validatedType(method);
+            registrations.add("        routes.add(\"" + httpMethod + "\", " + literal((String) value(route, "value"))
+                    + ", controller::" + method.getSimpleName() + ", " + (validated != null ? validated + ".class" : "null") + ");");
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(controller);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = registrarName(controller);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String type = controller.getQualifiedName().toString();
+        if (generated.contains(qualifiedName)) {
+            return;
+        }
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, controller);
+            try (Writer out = file.openWriter()) {
+                if (!packageName.isEmpty()) {
+                    out.write("package " + packageName + ";\n\n");
+                }
+                out.write("@javax.annotation.processing.Generated(\"" + RouteProcessor.class.getName() + "\")\n");
+                out.write("public final class " + simpleName + " implements " + REGISTRAR + "<" + type + "> {\n");
+                out.write("    @Override\n");
+                out.write("    public Class<" + type + "> controllerType() {\n");
+                out.write("        return " + type + ".class;\n");
+                out.write("    }\n\n");
+                out.write("    @Override\n");
+                out.write("    public void register(" + type + " controller, " + REGISTRAR + ".Routes routes) {\n");
+                for (String registration : registrations) {
+                    out.write(registration + "\n");
+                }
+                out.write("    }\n");
+                out.write("}\n");
+            }
+            generated.add(qualifiedName);
+        } catch (IOException e) {
+            error(controller, "No se pudo generar " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe {@code META-INF/services} con los registros de esta compilación y los de compilaciones anteriores
+     * cuya clase sigue existiendo: en una compilación incremental solo se procesan los controladores modificados.
+     */
+    private void writeServiceFile() {
+        String path = "META-INF/services/" + REGISTRAR;
+        Set<String> names = previousRegistrars(path);
+        names.addAll(generated);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try (Writer out = file.openWriter()) {
+                for (String name : names) {
+                    out.write(name + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "No se pudo escribir " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registros del archivo de servicio que dejó la compilación anterior, sin los de controladores borrados.
+     */
+    private Set<String> previousRegistrars(String path) {
+        Set<String> names = new LinkedHashSet<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try (BufferedReader in = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String name = (comment == -1 ? line : line.substring(0, comment)).trim();
+                    if (!name.isEmpty() && processingEnv.getElementUtils().getTypeElement(name) != null) {
+                        names.add(name);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Primera compilación: todavía no hay archivo de servicio
+        }
+        return names;
+    }
+
+    /**
+     * Primera anotación de ruta del método, en el orden Get, Post, Put, Delete.
+     */
+    private AnnotationMirror routeAnnotation(ExecutableElement method) {
+        for (String name : ROUTE_ANNOTATIONS) {
+            for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+                if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATIONS + name)) {
+                    return mirror;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String validatedType(ExecutableElement method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATIONS + "ValidatedRoute")) {
+                TypeMirror type = (TypeMirror) value(mirror, "value");
+                return processingEnv.getTypeUtils().erasure(type).toString();
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private boolean isRouteMethod(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return !modifiers.contains(Modifier.PRIVATE)
+                && !modifiers.contains(Modifier.STATIC)
+                && method.getTypeParameters().isEmpty()
+                && isType(method.getReturnType(), RESPONSE)
+                && method.getParameters().size() == 1
+                && isType(method.getParameters().get(0).asType(), REQUEST);
+    }
+
+    /**
+     * Una referencia al método no puede implementar {@code Handler} si declara excepciones comprobadas.
+     */
+    private boolean throwsCheckedException(ExecutableElement method) {
+        TypeMirror runtime = processingEnv.getElementUtils().getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror error = processingEnv.getElementUtils().getTypeElement(Error.class.getName()).asType();
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            if (!processingEnv.getTypeUtils().isSubtype(thrown, runtime) && !processingEnv.getTypeUtils().isSubtype(thrown, error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+        return element != null && processingEnv.getTypeUtils().isSameType(type, element.asType());
+    }
+
+    /**
+     * La clase, y las que la contienen, deben poder usarse desde otra clase del mismo paquete.
+     */
+    private static boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement element) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)
+                    || !element.getTypeParameters().isEmpty()
+                    || element.getNestingKind() == NestingKind.LOCAL
+                    || element.getNestingKind() == NestingKind.ANONYMOUS
+                    || (element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC))) {
+                return false;
+            }
+            current = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * {@code Externa_Interna_Routes} para clases anidadas.
+     */
+    private static String registrarName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element current = type.getEnclosingElement();
+        while (current instanceof TypeElement element) {
+            name.insert(0, element.getSimpleName() + "_");
+            current = element.getEnclosingElement();
+        }
+        return name.append("_Routes").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.angel.raa.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteProcessorTest {
+    private static final String SERVICE_FILE = "META-INF/services/io.github.angel.raa.core.router.RouteRegistrar";
+
+    /**
+     * Versiones mínimas de las clases de Alba que el procesador reconoce por nombre.
+     */
+    private static final Map<String, String> ALBA = Map.of(
+            "io/github/angel/raa/annotations/Get.java", """
+                    package io.github.angel.raa.annotations;
+                    public @interface Get { String value(); }
+                    """,
+            "io/github/angel/raa/annotations/Post.java", """
+                    package io.github.angel.raa.annotations;
+                    public @interface Post { String value(); }
+                    """,
+            "io/github/angel/raa/http/Request.java", """
+                    package io.github.angel.raa.http;
+                    public class Request { }
+                    """,
+            "io/github/angel/raa/http/Response.java", """
+                    package io.github.angel.raa.http;
+                    public class Response { }
+                    """,
+            "io/github/angel/raa/handler/Handler.java", """
+                    package io.github.angel.raa.handler;
+                    import io.github.angel.raa.http.*;
+                    public interface Handler { Response handle(Request request); }
+                    """,
+            "io/github/angel/raa/core/router/Controller.java", """
+                    package io.github.angel.raa.core.router;
+                    public abstract class Controller { }
+                    """,
+            "io/github/angel/raa/core/router/RouteRegistrar.java", """
+                    package io.github.angel.raa.core.router;
+                    import io.github.angel.raa.handler.Handler;
+                    public interface RouteRegistrar<C extends Controller> {
+                        Class<C> controllerType();
+                        void register(C controller, Routes routes);
+                        interface Routes { void add(String method, String path, Handler handler, Class<?> validatedType); }
+                    }
+                    """);
+
+    private record Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        List<String> warnings() {
+            return diagnostics.stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING)
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .filter(message -> message.contains("reflexión"))
+                    .toList();
+        }
+    }
+
+    private static Path alba(Path dir) throws IOException {
+        Path sources = dir.resolve("alba-src");
+        for (Map.Entry<String, String> entry : ALBA.entrySet()) {
+            write(sources, entry.getKey(), entry.getValue());
+        }
+        Path classes = dir.resolve("alba");
+        Compilation compilation = compile(classes, List.of(), sources, false);
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        return classes;
+    }
+
+    private static Path write(Path root, String name, String source) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+        return file;
+    }
+
+    /**
+     * Compila todos los {@code .java} de {@code sources} en {@code out}, con el procesador si {@code process}.
+     */
+    private static Compilation compile(Path out, List<Path> classpath, Path sources, boolean process) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Files.createDirectories(out);
+        List<String> options = new ArrayList<>(List.of("-d", out.toString(), "-s", out.toString(), "-implicit:none"));
+        if (!classpath.isEmpty()) {
+            options.add("-classpath");
+            options.add(String.join(File.pathSeparator, classpath.stream().map(Path::toString).toList()));
+        }
+        if (!process) {
+            options.add("-proc:none");
+        }
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+             Stream<Path> tree = Files.walk(sources)) {
+            List<Path> paths = tree.filter(path -> path.toString().endsWith(".java")).toList();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null,
+                    files.getJavaFileObjectsFromPaths(paths));
+            if (process) {
+                task.setProcessors(List.of(new RouteProcessor()));
+            }
+            return new Compilation(task.call(), diagnostics.getDiagnostics());
+        }
+    }
+
+    private static String controller(String pkg, String name, String methods) {
+        return "package " + pkg + ";\n"
+                + "import io.github.angel.raa.annotations.*;\n"
+                + "import io.github.angel.raa.core.router.Controller;\n"
+                + "import io.github.angel.raa.http.*;\n"
+                + "public class " + name + " extends Controller {\n" + methods + "}\n";
+    }
+
+    @Test
+    public void testPlainRoutes(@TempDir Path dir) throws IOException {
+        /**
+         * Test a controller with public, package-private and unchecked-throwing route methods
+         * Expected: a registrar with direct method references, declared in META-INF/services
+         */
+        Path alba = alba(dir);
+        Path sources = dir.resolve("src");
+        write(sources, "app/UserController.java", controller("app", "UserController", """
+                    @Get("/ping") public Response ping(Request r) { return new Response(); }
+                    @Post("/save") Response save(Request r) throws IllegalStateException { return new Response(); }
+                    public Response helper(Request r) { return null; }
+                """));
+        Path out = dir.resolve("out");
+
+        Compilation compilation = compile(out, List.of(alba), sources, true);
+
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertEquals(List.of(), compilation.warnings());
+        String registrar = Files.readString(out.resolve("app/UserController_Routes.java"));
+        assertTrue(registrar.contains("routes.add(\"GET\", \"/ping\", controller::ping, null);"));
+        assertTrue(registrar.contains("routes.add(\"POST\", \"/save\", controller::save, null);"));
+        assertFalse(registrar.contains("helper"));
+        assertTrue(Files.exists(out.resolve("app/UserController_Routes.class")));
+        assertEquals(List.of("app.UserController_Routes"), Files.readAllLines(out.resolve(SERVICE_FILE)));
+    }
+
+    @Test
+    public void testCheckedExceptionsFallBackToReflection(@TempDir Path dir) throws IOException {
+        /**
+         * Test a route method that declares a checked exception
+         * Expected: the build succeeds with a warning and no registrar, so the controller is registered by reflection
+         */
+        Path alba = alba(dir);
+        Path sources = dir.resolve("src");
+        write(sources, "app/FileController.java", controller("app", "FileController", """
+                    @Get("/read") public Response read(Request r) throws java.io.IOException { return new Response(); }
+                """));
+        Path out = dir.resolve("out");
+
+        Compilation compilation = compile(out, List.of(alba), sources, true);
+
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertEquals(1, compilation.warnings().size());
+        assertFalse(Files.exists(out.resolve("app/FileController_Routes.java")));
+        assertFalse(Files.exists(out.resolve(SERVICE_FILE)));
+    }
+
+    @Test
+    public void testInaccessibleMethodsFallBackToReflection(@TempDir Path dir) throws IOException {
+        /**
+         * Test private, static and generic route methods
+         * Expected: one warning per controller and no registrars
+         */
+        Path alba = alba(dir);
+        Path sources = dir.resolve("src");
+        write(sources, "app/PrivateController.java", controller("app", "PrivateController", """
+                    @Get("/a") private Response a(Request r) { return new Response(); }
+                """));
+        write(sources, "app/StaticController.java", controller("app", "StaticController", """
+                    @Get("/b") static Response b(Request r) { return new Response(); }
+                """));
+        write(sources, "app/GenericController.java", controller("app", "GenericController", """
+                    @Get("/c") <T> Response c(Request r) { return new Response(); }
+                """));
+        Path out = dir.resolve("out");
+
+        Compilation compilation = compile(out, List.of(alba), sources, true);
+
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertEquals(3, compilation.warnings().size());
+        try (Stream<Path> generated = Files.walk(out)) {
+            assertTrue(generated.noneMatch(path -> path.toString().endsWith("_Routes.java")));
+        }
+        assertFalse(Files.exists(out.resolve(SERVICE_FILE)));
+    }
+
+    @Test
+    public void testServiceFileMergedAcrossBuilds(@TempDir Path dir) throws IOException {
+        /**
+         * Test an incremental build that only recompiles one controller, then one after another controller is deleted
+         * Expected: the service file keeps the registrars of earlier builds and drops those whose class no longer exists
+         */
+        Path alba = alba(dir);
+        Path out = dir.resolve("out");
+        Path first = dir.resolve("first");
+        write(first, "a/AController.java", controller("a", "AController", """
+                    @Get("/x") public Response x(Request r) { return new Response(); }
+                """));
+        assertTrue(compile(out, List.of(alba), first, true).success());
+
+        Path second = dir.resolve("second");
+        write(second, "b/BController.java", controller("b", "BController", """
+                    @Get("/y") public Response y(Request r) { return new Response(); }
+                """));
+        assertTrue(compile(out, List.of(alba, out), second, true).success());
+        assertEquals(List.of("a.AController_Routes", "b.BController_Routes"), Files.readAllLines(out.resolve(SERVICE_FILE)));
+
+        // Controlador A borrado: el compilador incremental elimina sus clases y su código generado
+        try (Stream<Path> deleted = Files.walk(out.resolve("a"))) {
+            for (Path path : deleted.sorted((x, y) -> y.compareTo(x)).toList()) {
+                Files.delete(path);
+            }
+        }
+        assertTrue(compile(out, List.of(alba, out), second, true).success());
+        assertEquals(List.of("b.BController_Routes"), Files.readAllLines(out.resolve(SERVICE_FILE)));
+    }
+}
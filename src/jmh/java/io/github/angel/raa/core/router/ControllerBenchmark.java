@@ -0,0 +1,77 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.annotations.Get;
+import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.Request;
+import io.github.angel.raa.http.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el manejador que genera {@link Controller} para un método anotado con la invocación
+ * anterior por reflexión ({@code Method.invoke}).
+ *
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ControllerBenchmark
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+    private static final Response PONG = new Response(200, "pong");
+
+    public static class PingController extends Controller {
+        public PingController() {
+            super("/bench");
+        }
+
+        @Get("/ping")
+        public Response ping(Request request) {
+            return PONG;
+        }
+    }
+
+    private PingController controller;
+    private Handler generated;
+    private Method method;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        controller = new PingController();
+        generated = controller.getRoutes().get("GET /bench/ping");
+        method = PingController.class.getMethod("ping", Request.class);
+    }
+
+    @Benchmark
+    public Response generatedInvoker() {
+        return generated.handle(null);
+    }
+
+    /**
+     * Ruta anterior de {@code Controller.createHandler}.
+     */
+    @Benchmark
+    public Response reflection() {
+        try {
+            return (Response) method.invoke(controller, (Request) null);
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            return new Response(500, e.getMessage());
+        }
+    }
+}
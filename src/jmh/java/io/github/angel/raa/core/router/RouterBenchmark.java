@@ -0,0 +1,107 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la búsqueda en el árbol de rutas de {@link Router} con el recorrido lineal anterior
+ * ({@code extractParams} con dos {@code split("/")} por ruta candidata) con 10, 100 y 1000 rutas.
+ * La mitad de las rutas son estáticas y la otra mitad tienen un parámetro; se buscan la última
+ * ruta con parámetro y una ruta inexistente.
+ *
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=RouterBenchmark
+ * }</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    private final Router router = new Router();
+    private final Map<String, Handler> linearRoutes = new HashMap<>();
+    private String hit;
+    private final String miss = "/api/unknown/42/details";
+
+    @Setup
+    public void setup() {
+        Handler handler = request -> new Response(200, "ok");
+        for (int i = 0; i < routes / 2; i++) {
+            router.get("/api/resource" + i + "/list", handler);
+            router.get("/api/resource" + i + "/:id", handler);
+            linearRoutes.put("/api/resource" + i + "/list", handler);
+            linearRoutes.put("/api/resource" + i + "/:id", handler);
+        }
+        hit = "/api/resource" + (routes / 2 - 1) + "/42";
+    }
+
+    @Benchmark
+    public RouteMatch treeHit() {
+        return router.getRouteMatch("GET", hit);
+    }
+
+    @Benchmark
+    public RouteMatch treeMiss() {
+        return router.getRouteMatch("GET", miss);
+    }
+
+    @Benchmark
+    public RouteMatch linearHit() {
+        return linearMatch(hit);
+    }
+
+    @Benchmark
+    public RouteMatch linearMiss() {
+        return linearMatch(miss);
+    }
+
+    /**
+     * Búsqueda anterior de {@code Router.getRouteMatch}.
+     */
+    private RouteMatch linearMatch(String path) {
+        for (Map.Entry<String, Handler> entry : linearRoutes.entrySet()) {
+            Map<String, String> params = extractParams(entry.getKey(), path);
+            if (params != null) {
+                return new RouteMatch(params, entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> extractParams(String routePath, String path) {
+        String[] routeParts = routePath.split("/");
+        String[] pathParts = path.split("/");
+        if (routeParts.length != pathParts.length) {
+            return null;
+        }
+        Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < routeParts.length; i++) {
+            if (routeParts[i].startsWith(":")) {
+                params.put(routeParts[i].substring(1), pathParts[i]);
+            } else if (!routeParts[i].equals(pathParts[i])) {
+                return null;
+            }
+        }
+        return params;
+    }
+}
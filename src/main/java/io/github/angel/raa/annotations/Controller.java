@@ -5,10 +5,14 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Marca un controlador. Sobre una clase, el procesador de anotaciones de {@code alba-processor}
+ * comprueba que extienda {@link io.github.angel.raa.core.router.Controller} y genera su registro de rutas.
+ */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.TYPE})
 public @interface Controller {
-    String value();
-    String[] consumer();
-    String[] producer();
+    String value() default "";
+    String[] consumer() default {};
+    String[] producer() default {};
 }
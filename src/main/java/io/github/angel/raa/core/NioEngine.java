@@ -0,0 +1,503 @@
+package io.github.angel.raa.core;
+
+import io.github.angel.raa.http.ChunkedDecoder;
+import io.github.angel.raa.http.FileRegion;
+import io.github.angel.raa.http.HttpRequestHead;
+import io.github.angel.raa.http.HttpRequestParser;
+import io.github.angel.raa.http.Response;
+import org.json.JSONObject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Motor de conexiones no bloqueante basado en {@link Selector}.
+ *
+ * <p>Un hilo acepta conexiones y las reparte entre un pequeño grupo de bucles de eventos
+ * (uno por núcleo). Cada bucle lee los bytes disponibles en un {@link ByteBuffer} por conexión
+ * y, solo cuando la solicitud está completa (cabeceras y cuerpo según {@code Content-Length}),
+ * la entrega al pool de hilos del {@link Server}. Un cliente lento nunca ocupa un hilo del pool.</p>
+ *
+ * <p>La escritura de la respuesta se hace desde el hilo del pool. Si el socket no admite más datos,
+ * el hilo espera con un {@link Selector} propio de la conexión en lugar de girar en vacío.</p>
+ */
+final class NioEngine {
+    private static final System.Logger logger = System.getLogger(NioEngine.class.getName());
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final long WRITE_TIMEOUT_MILLIS = 30_000;
+    private static final long IDLE_CHECK_INTERVAL_MILLIS = 1_000;
+
+    private final Server server;
+    private final ExecutorService workers;
+    private final EventLoop[] loops;
+    private volatile boolean running = true;
+    private volatile ServerSocketChannel serverChannel;
+
+    NioEngine(Server server, ExecutorService workers, int eventLoops) {
+        this.server = server;
+        this.workers = workers;
+        this.loops = new EventLoop[Math.max(1, eventLoops)];
+    }
+
+    /**
+     * Abre el canal del servidor, arranca los bucles de eventos y acepta conexiones
+     * en el hilo actual hasta que se invoque {@link #stop()}.
+     */
+    void start(int port) throws IOException {
+        ServerSocketChannel opened = ServerSocketChannel.open();
+        opened.bind(new InetSocketAddress(port));
+        serverChannel = opened;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop();
+            Thread thread = new Thread(loops[i], "alba-nio-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int next = 0;
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                break; // stop() cerró el canal
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                closeQuietly(channel); // El cliente ya cerró la conexión: no afecta a las demás
+                continue;
+            }
+            loops[next++ % loops.length].register(channel);
+        }
+    }
+
+    /**
+     * Canal en el que se aceptan conexiones, o null si aún no se abrió.
+     */
+    ServerSocketChannel serverChannel() {
+        return serverChannel;
+    }
+
+    /**
+     * Detiene la aceptación de conexiones y los bucles de eventos.
+     */
+    void stop() {
+        running = false;
+        closeQuietly(serverChannel);
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                loop.selector.wakeup();
+            }
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // No hay nada más que hacer
+        }
+    }
+
+    /**
+     * Bucle de eventos: registra conexiones nuevas, lee de las que tienen datos disponibles
+     * y cierra las conexiones persistentes que superan el tiempo de inactividad.
+     */
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private long lastIdleCheck = System.currentTimeMillis();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            execute(() -> {
+                try {
+                    Connection connection = new Connection(channel, this);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                }
+            });
+        }
+
+        /**
+         * Ejecuta una tarea en el hilo del bucle de eventos.
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(IDLE_CHECK_INTERVAL_MILLIS);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid() && key.isReadable()) {
+                            read((Connection) key.attachment());
+                        }
+                    }
+                    closeIdleConnections();
+                }
+            } catch (IOException e) {
+                logger.log(System.Logger.Level.ERROR, "Error en el bucle de eventos NIO", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void read(Connection connection) {
+            try {
+                if (connection.channel.read(connection.buffer) == -1) {
+                    connection.close();
+                    return;
+                }
+                connection.lastActivity = System.currentTimeMillis();
+                connection.tryDispatch();
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheck < IDLE_CHECK_INTERVAL_MILLIS) {
+                return;
+            }
+            lastIdleCheck = now;
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (connection != null && !connection.inFlight
+                        && now - connection.lastActivity > server.getKeepAliveTimeout()) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Estado de una conexión: el buffer de lectura acumulado, la cola ordenada de respuestas
+     * y el selector usado para esperar escrituras.
+     * Mientras hay solicitudes en el pool ({@code inFlight}) la conexión no se lee; al terminar,
+     * si es persistente, el bucle vuelve a leerla y procesa los bytes que ya hubiera recibido.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final EventLoop loop;
+        private final String clientIp;
+        private SelectionKey key;
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final ResponsePipeline pipeline;
+        private final HttpRequestParser parser = new HttpRequestParser();
+        private Selector writeSelector;
+        private final BlockingWriter blockingWriter = new BlockingWriter();
+        private volatile long lastActivity = System.currentTimeMillis();
+        private volatile boolean inFlight;
+        private int served;
+        private HttpRequestHead pendingHead; // Cabecera ya analizada de una solicitud cuyo cuerpo está llegando
+        private int pendingBodyStart;
+        private ChunkedDecoder chunkedDecoder; // Cuerpo chunked a medio recibir
+        private int chunkedEnd; // Fin del cuerpo chunked ya decodificado dentro del buffer
+
+        Connection(SocketChannel channel, EventLoop loop) throws IOException {
+            this.channel = channel;
+            this.loop = loop;
+            this.pipeline = new ResponsePipeline(workers);
+            this.clientIp = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+        }
+
+        /**
+         * Encola todas las solicitudes completas del buffer (pipelining) y, si hay alguna,
+         * deja de leer la conexión y entrega al pool la escritura ordenada de sus respuestas.
+         */
+        void tryDispatch() {
+            while (pipeline.size() < ResponsePipeline.MAX_PIPELINED_REQUESTS && parseNext()) {
+                // Seguir mientras haya solicitudes completas y la conexión siga abierta
+            }
+            if (pipeline.isEmpty()) {
+                return;
+            }
+            inFlight = true;
+            key.interestOps(0);
+            workers.execute(this::flushPipeline);
+        }
+
+        /**
+         * Extrae una solicitud completa del buffer y la encola. La cabecera se analiza una sola vez:
+         * mientras llega el cuerpo se conservan la cabecera y la posición donde empieza.
+         *
+         * @return si se encoló una solicitud y la conexión puede seguir recibiendo otras
+         */
+        private boolean parseNext() {
+            byte[] data = buffer.array();
+            int length = buffer.position();
+            HttpRequestHead head = pendingHead;
+            int bodyStart = pendingBodyStart;
+            if (head == null) {
+                bodyStart = parser.parse(data, 0, length);
+                if (bodyStart == HttpRequestParser.NEED_MORE) {
+                    growIfFull(Integer.MAX_VALUE); // El analizador limita el tamaño de la cabecera
+                    return false;
+                }
+                if (bodyStart == HttpRequestParser.INVALID) {
+                    pipeline.add(new Response(400, new JSONObject().put("error", "Solicitud inválida")), false);
+                    return false;
+                }
+
+                head = parser.head();
+                Response invalidBody = Server.invalidBodyFraming(head);
+                if (invalidBody != null) {
+                    pipeline.add(invalidBody, false);
+                    return false;
+                }
+                if (!head.isChunked() && head.contentLength() > Server.MAX_BUFFERED_BODY_SIZE) {
+                    pipeline.add(Server.invalidContentLength(head.contentLength()), false);
+                    return false;
+                }
+                pendingHead = head;
+                pendingBodyStart = bodyStart;
+            }
+            if (head.isChunked()) {
+                return parseChunked(head, bodyStart);
+            }
+            int requestEnd = bodyStart + (int) head.contentLength();
+            if (length < requestEnd) {
+                growIfFull(requestEnd);
+                return false; // Falta parte del cuerpo
+            }
+
+            byte[] body = Arrays.copyOfRange(data, bodyStart, requestEnd);
+            pendingHead = null;
+            consume(requestEnd);
+            return enqueue(head, body);
+        }
+
+        /**
+         * Decodifica un cuerpo chunked dentro del propio buffer: los datos de cada chunk se desplazan
+         * sobre los bytes de control ya leídos, de modo que el buffer solo guarda el cuerpo decodificado
+         * y lo que aún falta por decodificar. El estado se conserva entre lecturas.
+         *
+         * @return si se encoló la solicitud y la conexión puede seguir recibiendo otras
+         */
+        private boolean parseChunked(HttpRequestHead head, int bodyStart) {
+            if (chunkedDecoder == null) {
+                chunkedDecoder = new ChunkedDecoder();
+                chunkedEnd = bodyStart;
+            }
+            byte[] data = buffer.array();
+            int length = buffer.position();
+            int scan = chunkedEnd;
+            try {
+                while (!chunkedDecoder.isDone()) {
+                    scan = chunkedDecoder.advance(data, scan, length);
+                    int count = (int) Math.min(chunkedDecoder.dataRemaining(), length - scan);
+                    if (count == 0 && !chunkedDecoder.isDone()) {
+                        break; // Falta parte del cuerpo
+                    }
+                    System.arraycopy(data, scan, data, chunkedEnd, count);
+                    chunkedEnd += count;
+                    scan += count;
+                    chunkedDecoder.dataConsumed(count);
+                }
+            } catch (IOException e) {
+                chunkedDecoder = null;
+                pendingHead = null;
+                pipeline.add(new Response(400, new JSONObject().put("error", e.getMessage())), false);
+                return false;
+            }
+            if (chunkedEnd - bodyStart > Server.MAX_BUFFERED_BODY_SIZE) {
+                chunkedDecoder = null;
+                pendingHead = null;
+                pipeline.add(Server.invalidContentLength(chunkedEnd - bodyStart), false);
+                return false;
+            }
+            // Juntar lo que falta por decodificar con el cuerpo ya decodificado
+            System.arraycopy(data, scan, data, chunkedEnd, length - scan);
+            buffer.position(length - (scan - chunkedEnd));
+            if (!chunkedDecoder.isDone()) {
+                growIfFull(Integer.MAX_VALUE); // El cuerpo decodificado ya se limitó arriba
+                return false;
+            }
+
+            byte[] body = Arrays.copyOfRange(data, bodyStart, chunkedEnd);
+            consume(chunkedEnd);
+            chunkedDecoder = null;
+            pendingHead = null;
+            return enqueue(head, body);
+        }
+
+        private boolean enqueue(HttpRequestHead head, byte[] body) {
+            boolean keepAlive = Server.isKeepAlive(head) && ++served < server.getMaxKeepAliveRequests();
+            boolean parallel = server.isParallelPipelining() && ResponsePipeline.isSafeMethod(head.method());
+            pipeline.add(() -> server.respond(clientIp, head, body), keepAlive, parallel);
+            return keepAlive;
+        }
+
+        /**
+         * Escribe en orden las respuestas encoladas; se ejecuta en el pool.
+         */
+        private void flushPipeline() {
+            try {
+                if (pipeline.flush(this::write)) {
+                    lastActivity = System.currentTimeMillis();
+                    loop.execute(this::resume);
+                } else {
+                    close();
+                }
+            } catch (IOException e) {
+                logger.log(System.Logger.Level.ERROR, "Error al manejar la solicitud", e);
+                close();
+            }
+        }
+
+        /**
+         * Vuelve a leer la conexión tras enviar una respuesta y despacha la siguiente solicitud si ya llegó.
+         */
+        private void resume() {
+            inFlight = false;
+            if (!key.isValid()) {
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            tryDispatch();
+        }
+
+        /**
+         * Descarta los primeros {@code count} bytes del buffer conservando los siguientes.
+         */
+        private void consume(int count) {
+            buffer.flip();
+            buffer.position(count);
+            buffer.compact();
+        }
+
+        /**
+         * Duplica el buffer cuando está lleno, sin pasar de {@code limit}: crece a medida que llegan los bytes,
+         * no según la longitud que anuncia la solicitud.
+         */
+        private void growIfFull(int limit) {
+            if (!buffer.hasRemaining() && buffer.capacity() < limit) {
+                ByteBuffer larger = ByteBuffer.allocate((int) Math.min(limit, buffer.capacity() * 2L));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        /**
+         * Escribe la respuesta completa directamente en el canal. Si el socket está lleno, espera a que sea escribible.
+         */
+        void write(Response response) throws IOException {
+            response.writeTo(blockingWriter);
+        }
+
+        private void awaitWritable() throws IOException {
+            if (writeSelector == null) {
+                writeSelector = Selector.open();
+            }
+            SelectionKey writeKey = channel.register(writeSelector, SelectionKey.OP_WRITE);
+            try {
+                if (writeSelector.select(WRITE_TIMEOUT_MILLIS) == 0) {
+                    throw new ClosedChannelException();
+                }
+            } finally {
+                writeKey.cancel();
+                writeSelector.selectNow();
+            }
+        }
+
+        void close() {
+            closeQuietly(channel);
+            closeQuietly(writeSelector);
+        }
+
+        /**
+         * Vista bloqueante del canal no bloqueante, usada por {@code Response.writeTo}:
+         * cuando el socket no acepta más bytes espera con {@link #awaitWritable()} en lugar de devolver 0.
+         * Los archivos se transfieren al socket real, de modo que {@code transferTo} usa {@code sendfile}.
+         */
+        private final class BlockingWriter implements GatheringByteChannel, FileRegion.Target {
+            @Override
+            public void transferFrom(FileChannel file, long position, long count) throws IOException {
+                long end = position + count;
+                while (position < end) {
+                    long sent = file.transferTo(position, end - position, channel);
+                    if (sent == 0) {
+                        if (position >= file.size()) {
+                            throw new EOFException("El archivo terminó antes de lo esperado");
+                        }
+                        awaitWritable();
+                    }
+                    position += sent;
+                }
+            }
+
+            @Override
+            public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+                long written = channel.write(sources, offset, length);
+                if (written == 0) {
+                    awaitWritable();
+                }
+                return written;
+            }
+
+            @Override
+            public long write(ByteBuffer[] sources) throws IOException {
+                return write(sources, 0, sources.length);
+            }
+
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                int written = channel.write(source);
+                if (written == 0) {
+                    awaitWritable();
+                }
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() {
+                Connection.this.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.angel.raa.core;
+
+import io.github.angel.raa.http.Response;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Cola ordenada de respuestas de una conexión con solicitudes encadenadas (HTTP/1.1 pipelining).
+ *
+ * <p>Las solicitudes se encolan en el orden en que llegaron. Las que pueden procesarse en paralelo
+ * se envían al pool de hilos en cuanto se encolan; el resto se ejecuta en el hilo que escribe.
+ * {@link #flush(ResponseWriter)} escribe siempre las respuestas en el orden de las solicitudes.
+ * Si una tarea aún no ha empezado cuando le toca escribirse, se ejecuta en el hilo actual,
+ * de modo que esperar a la cola nunca bloquea el pool aunque esté lleno.</p>
+ *
+ * <p>No es segura para uso concurrente: la conexión la entrega de un hilo a otro.</p>
+ */
+final class ResponsePipeline {
+    /**
+     * Número máximo de solicitudes encadenadas que se aceptan antes de escribir sus respuestas.
+     */
+    static final int MAX_PIPELINED_REQUESTS = 16;
+
+    private final Executor executor;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+
+    ResponsePipeline(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Encola una solicitud. Si {@code parallel} es verdadero se procesa de inmediato en el pool.
+     */
+    void add(Callable<Response> call, boolean keepAlive, boolean parallel) {
+        FutureTask<Response> task = new FutureTask<>(call);
+        if (parallel) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // El pool se está deteniendo: se ejecutará al escribirla
+            }
+        }
+        queue.add(new Entry(task, keepAlive));
+    }
+
+    /**
+     * Encola una respuesta ya calculada, por ejemplo un error de formato.
+     */
+    void add(Response response, boolean keepAlive) {
+        add(() -> response, keepAlive, false);
+    }
+
+    /**
+     * Solo los métodos seguros (sin efectos) pueden ejecutarse en paralelo con las solicitudes vecinas.
+     */
+    static boolean isSafeMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Escribe en orden todas las respuestas encoladas, añadiendo la cabecera {@code Connection}.
+     * Tras una respuesta que termina al cerrar la conexión ({@link Response#isCloseDelimited()}) o cuyo manejador
+     * envió {@code Connection: close} no se escriben más.
+     *
+     * @return si la conexión debe seguir abierta tras la última respuesta escrita
+     */
+    boolean flush(ResponseWriter writer) throws IOException {
+        boolean keepAlive = true;
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.task.run(); // No hace nada si ya se ejecutó o se está ejecutando en el pool
+            Response response = await(entry.task);
+            keepAlive = entry.keepAlive && !response.isCloseDelimited() && !takeCloseHeader(response);
+            response.addHeader("Connection", keepAlive ? "keep-alive" : "close");
+            writer.write(response);
+            if (!keepAlive) {
+                queue.clear();
+            }
+        }
+        return keepAlive;
+    }
+
+    /**
+     * Quita la cabecera {@code Connection} que haya puesto el manejador, con cualquier grafía,
+     * e indica si pedía cerrar la conexión.
+     */
+    private static boolean takeCloseHeader(Response response) {
+        boolean close = false;
+        Iterator<Map.Entry<String, String>> headers = response.getHeaders().entrySet().iterator();
+        while (headers.hasNext()) {
+            Map.Entry<String, String> header = headers.next();
+            if ("Connection".equalsIgnoreCase(header.getKey())) {
+                close |= header.getValue() != null && header.getValue().trim().equalsIgnoreCase("close");
+                headers.remove();
+            }
+        }
+        return close;
+    }
+
+    private static Response await(FutureTask<Response> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido mientras se esperaba la respuesta", e);
+        } catch (ExecutionException e) {
+            return new Response(500, new JSONObject().put("error", "Error interno del servidor"));
+        }
+    }
+
+    /**
+     * Destino de las respuestas de la cola.
+     */
+    @FunctionalInterface
+    interface ResponseWriter {
+        void write(Response response) throws IOException;
+    }
+
+    private record Entry(FutureTask<Response> task, boolean keepAlive) {
+    }
+}
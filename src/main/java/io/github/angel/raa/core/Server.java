@@ -1,5 +1,10 @@
 package io.github.angel.raa.core;
 
+import io.github.angel.raa.http.BodyInputStream;
+import io.github.angel.raa.http.ChunkedInputStream;
+import io.github.angel.raa.http.DateHeader;
+import io.github.angel.raa.http.HttpRequestHead;
+import io.github.angel.raa.http.HttpRequestParser;
 import io.github.angel.raa.http.Request;
 import io.github.angel.raa.http.Response;
 import io.github.angel.raa.core.router.Controller;
@@ -9,24 +14,23 @@ import io.github.angel.raa.exceptions.HttpException;
 import io.github.angel.raa.exceptions.RouteException;
 import io.github.angel.raa.handler.Handler;
 import io.github.angel.raa.middleware.Middleware;
-import io.github.angel.raa.middleware.MiddlewareChain;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.ServerSocket;
+import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.nio.charset.StandardCharsets;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Stream;
 
-import static java.lang.System.out;
 
 /**
  * Clase principal del servidor HTTP de Alba.
@@ -43,6 +47,9 @@ import static java.lang.System.out;
  *     <li>Configuración flexible de host y puerto.</li>
  *     <li>Compatibilidad con middlewares globales y específicos por ruta.</li>
  *     <li>Gestión eficiente de concurrencia mediante un pool de hilos.</li>
+ *     <li>Conexiones persistentes HTTP/1.1 (keep-alive) con tiempo de inactividad y límite de solicitudes configurables.</li>
+ *     <li>Solicitudes encadenadas (pipelining), opcionalmente procesadas en paralelo y respondidas en orden.</li>
+ *     <li>Motor de conexiones bloqueante, no bloqueante (NIO) o con hilos virtuales, seleccionable con {@link ServerMode}.</li>
  *     <li>Facilidad para iniciar y detener el servidor de manera controlada.</li>
  * </ul>
  *
@@ -78,22 +85,56 @@ import static java.lang.System.out;
  */
 public class Server {
     private static final System.Logger logger = System.getLogger(Server.class.getName());
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    /**
+     * Tamaño máximo de un cuerpo que se lee completo en memoria.
+     */
+    static final int MAX_BUFFERED_BODY_SIZE = Request.MAX_BUFFERED_BODY_SIZE;
+    /**
+     * Con el motor bloqueante, los cuerpos mayores se entregan al manejador como flujo sobre el socket
+     * en lugar de leerse antes de despacharlos.
+     */
+    static final int STREAMED_BODY_THRESHOLD = 64 * 1024;
     private final int port;
     private final String host;
     private final Router router = new Router();
     private final List<Middleware> globalMiddlewares = new ArrayList<>();
     private final ExecutorService threadPool;
+    private final ServerMode mode;
+    private volatile NioEngine nioEngine;
+    private volatile ServerSocketChannel serverChannel;
     private volatile boolean running = true;
+    private int keepAliveTimeout = 5_000;
+    private int maxKeepAliveRequests = 100;
+    private boolean parallelPipelining = false;
+    private boolean dateHeader = true;
+    private boolean dateHeaderStarted;
+    private boolean compression = false;
+    private boolean etags = false;
 
     /**
      * Constructor de la clase Server.
-     * Inicializa el servidor con el puerto, host y tamaño del pool de hilos especificados.
+     * Inicializa el servidor con el puerto, host, tamaño del pool de hilos y modo de ejecución especificados.
+     * En modo {@link ServerMode#VIRTUAL_THREADS} el tamaño del pool se ignora.
      *
      */
-    public Server(int port, String host, int threadPoolSize) {
+    public Server(int port, String host, int threadPoolSize, ServerMode mode) {
         this.port = port;
         this.host = host;
-        this.threadPool = Executors.newFixedThreadPool(threadPoolSize);
+        this.mode = mode;
+        this.threadPool = mode == ServerMode.VIRTUAL_THREADS
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threadPoolSize);
+    }
+
+    /**
+     * Constructor de la clase Server.
+     * Inicializa el servidor con el puerto, host y tamaño del pool de hilos especificados.
+     * Modo de ejecución por defecto: {@link ServerMode#BLOCKING}
+     *
+     */
+    public Server(int port, String host, int threadPoolSize) {
+        this(port, host, threadPoolSize, ServerMode.BLOCKING);
     }
 
     /**
@@ -103,9 +144,7 @@ public class Server {
      *
      */
     public Server(int port, String host) {
-        this.port = port;
-        this.host = host;
-        this.threadPool = Executors.newFixedThreadPool(10); // Pool de hilos
+        this(port, host, 10); // Pool de hilos
     }
 
     /**
@@ -123,8 +162,105 @@ public class Server {
     /**
      * Agrega un middleware global.
      */
-    public void use(Middleware middleware) {
+    public synchronized void use(Middleware middleware) {
         globalMiddlewares.add(middleware);
+        router.setGlobalMiddlewares(globalMiddlewares);
+    }
+
+    /**
+     * Establece cuántos milisegundos puede permanecer inactiva una conexión persistente antes de cerrarse.
+     * Valor por defecto: 5000
+     */
+    public void setKeepAliveTimeout(int keepAliveTimeout) {
+        if (keepAliveTimeout <= 0) {
+            throw new IllegalArgumentException("El tiempo de inactividad debe ser mayor que cero");
+        }
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    public int getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    /**
+     * Puerto en el que escucha el servidor. Con el puerto 0 es el que asignó el sistema,
+     * disponible cuando {@link #start()} ya abrió el canal (hasta entonces, 0).
+     */
+    public int getPort() {
+        if (port != 0) {
+            return port;
+        }
+        ServerSocketChannel channel = nioEngine != null ? nioEngine.serverChannel() : serverChannel;
+        return channel != null ? channel.socket().getLocalPort() : 0;
+    }
+
+    /**
+     * Establece el número máximo de solicitudes atendidas por una misma conexión.
+     * La última respuesta se envía con {@code Connection: close}. Con 1 se desactiva keep-alive.
+     * Valor por defecto: 100
+     */
+    public void setMaxKeepAliveRequests(int maxKeepAliveRequests) {
+        if (maxKeepAliveRequests <= 0) {
+            throw new IllegalArgumentException("El número máximo de solicitudes debe ser mayor que cero");
+        }
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    public int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    /**
+     * Activa el procesamiento en paralelo, en el pool de hilos, de las solicitudes GET/HEAD
+     * encadenadas en una misma conexión (pipelining). Las respuestas se escriben siempre en el orden
+     * de las solicitudes. Valor por defecto: false (se procesan una tras otra).
+     */
+    public void setParallelPipelining(boolean parallelPipelining) {
+        this.parallelPipelining = parallelPipelining;
+    }
+
+    public boolean isParallelPipelining() {
+        return parallelPipelining;
+    }
+
+    /**
+     * Activa la cabecera {@code Date} en todas las respuestas. Se toma de {@link DateHeader},
+     * que la formatea una vez por segundo fuera del procesamiento de las solicitudes.
+     * Debe configurarse antes de {@link #start()}. Valor por defecto: true
+     */
+    public void setDateHeader(boolean dateHeader) {
+        this.dateHeader = dateHeader;
+    }
+
+    public boolean isDateHeader() {
+        return dateHeader;
+    }
+
+    /**
+     * Comprime con gzip las respuestas de longitud desconocida ({@link Response#stream}) cuando el cliente
+     * lo acepta ({@code Accept-Encoding}) y el tipo de contenido es texto, JSON, XML o JavaScript.
+     * Las respuestas que ya indican su {@code Content-Encoding} no se tocan. Valor por defecto: false
+     */
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * Añade un ETag débil, calculado sobre el cuerpo, a las respuestas GET de longitud conocida, de modo que
+     * los clientes que repiten la solicitud con {@code If-None-Match} reciben un 304 sin cuerpo.
+     * Cuesta un SHA-256 del cuerpo por respuesta. Los {@code If-None-Match} e {@code If-Modified-Since}
+     * se atienden siempre que la respuesta tenga {@code ETag} o {@code Last-Modified}. Valor por defecto: false
+     */
+    public void setETags(boolean etags) {
+        this.etags = etags;
+    }
+
+    public boolean isETags() {
+        return etags;
     }
 
     /**
@@ -146,6 +282,16 @@ public class Server {
         addRouteWithMiddleware("DELETE", path, handler, middlewares);
     }
 
+    /**
+     * Elimina una ruta. Puede llamarse con el servidor en marcha, igual que los métodos que agregan rutas:
+     * la tabla de rutas se reemplaza de forma atómica sin detener las solicitudes en curso.
+     *
+     * @return si la ruta existía
+     */
+    public boolean removeRoute(String method, String path) {
+        return router.removeRoute(method, path);
+    }
+
     public void addController(Controller controller) {
         for (Map.Entry<String, Handler> entry : controller.getRoutes().entrySet()) {
             String methodAndPath = entry.getKey();
@@ -189,22 +335,7 @@ public class Server {
      * Método auxiliar para agregar una ruta con middlewares específicos.
      */
     private void addRouteWithMiddleware(String method, String path, Handler handler, Middleware[] middlewares) {
-        router.addRoute(method, path, request -> {
-            Response response = new Response();
-
-            // Crear una cadena de middlewares específica para esta ruta
-            MiddlewareChain chain = new MiddlewareChain(
-                    Stream.concat(Arrays.stream(middlewares), globalMiddlewares.stream()).iterator()
-            );
-
-            // Ejecutar la cadena de middlewares
-            if (!chain.next(request, response)) {
-                return response; // Devolver la respuesta si un middleware falla
-            }
-
-            // Si no hay errores, ejecutar el manejador
-            return handler.handle(request);
-        });
+        router.addRoute(method, path, handler, middlewares);
     }
 
     /**
@@ -212,6 +343,17 @@ public class Server {
      */
     public void stop() {
         running = false;
+        stopDateHeader();
+        if (nioEngine != null) {
+            nioEngine.stop();
+        }
+        if (serverChannel != null) {
+            try {
+                serverChannel.close(); // Desbloquea accept()
+            } catch (IOException e) {
+                logger.log(System.Logger.Level.WARNING, "Error al cerrar el canal del servidor", e);
+            }
+        }
         threadPool.shutdown();
         logger.log(System.Logger.Level.INFO, "Servidor detenido");
     }
@@ -220,116 +362,291 @@ public class Server {
      * Inicia el servidor.
      */
     public void start() throws IOException {
-        try (ServerSocket serverSocket = new ServerSocket(this.port)) {
+        startDateHeader();
+        if (mode == ServerMode.NIO) {
+            startNio();
+            return;
+        }
+        // Canal en modo bloqueante: cada socket tiene su canal, por el que los archivos se envían con sendfile
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(this.port));
+            this.serverChannel = serverChannel;
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            logger.log(System.Logger.Level.INFO, "[" + timestamp + "] Servidor iniciado en el puerto " + this.port);
+            logger.log(System.Logger.Level.INFO, "[" + timestamp + "] Servidor iniciado en el puerto " + getPort());
 
             while (running) {
-                Socket clientSocket = serverSocket.accept();
+                Socket clientSocket = serverChannel.accept().socket();
                 threadPool.submit(() -> {
                     try {
-                        handleRequest(clientSocket);
+                        handleConnection(clientSocket);
                     } catch (IOException e) {
                         logger.log(System.Logger.Level.ERROR, "Error al manejar la solicitud", e);
                     }
                 });
             }
+        } catch (ClosedChannelException e) {
+            if (running) {
+                throw new RuntimeException("Error al iniciar el servidor", e);
+            }
+            // stop() cerró el canal
         } catch (Exception e) {
             throw new RuntimeException("Error al iniciar el servidor", e);
         }
     }
 
+    private synchronized void startDateHeader() {
+        if (dateHeader && !dateHeaderStarted) {
+            DateHeader.start();
+            dateHeaderStarted = true;
+        }
+    }
+
+    private synchronized void stopDateHeader() {
+        if (dateHeaderStarted) {
+            DateHeader.stop();
+            dateHeaderStarted = false;
+        }
+    }
+
+    /**
+     * Inicia el servidor con el motor no bloqueante: un bucle de eventos por núcleo.
+     */
+    private void startNio() {
+        try {
+            nioEngine = new NioEngine(this, threadPool, Runtime.getRuntime().availableProcessors());
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            logger.log(System.Logger.Level.INFO, "[" + timestamp + "] Servidor NIO iniciado en el puerto " + this.port);
+            nioEngine.start(this.port);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al iniciar el servidor", e);
+        }
+    }
 
     /**
-     * Maneja una solicitud HTTP entrante.
+     * Atiende una conexión: lee y responde solicitudes mientras la conexión sea persistente,
+     * no supere el límite de solicitudes y no quede inactiva más de {@code keepAliveTimeout}.
+     * Las solicitudes encadenadas que ya están en el buffer se encolan y sus respuestas se escriben
+     * en orden antes de volver a bloquear en la lectura.
      *
      */
-    private void handleRequest(Socket clientSocket) throws IOException {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
+    private void handleConnection(Socket clientSocket) throws IOException {
+        clientSocket.setSoTimeout(keepAliveTimeout);
+        try (InputStream in = clientSocket.getInputStream();
              OutputStream out = clientSocket.getOutputStream()) {
+            String clientIp = clientSocket.getInetAddress().getHostAddress();
+            HttpRequestParser parser = new HttpRequestParser();
+            ResponsePipeline pipeline = new ResponsePipeline(threadPool);
+            SocketChannel channel = clientSocket.getChannel();
+            ResponsePipeline.ResponseWriter writer = response -> sendResponse(out, channel, response);
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int start = 0;
+            int end = 0;
+            int served = 0;
+            boolean keepAlive = true;
+
+            while (keepAlive && running) {
+                // Leer hasta tener la cabecera completa
+                int bodyStart;
+                while ((bodyStart = parser.parse(buffer, start, end)) == HttpRequestParser.NEED_MORE) {
+                    if (!pipeline.isEmpty() && in.available() == 0) {
+                        pipeline.flush(writer); // Responder antes de bloquear en la lectura
+                    }
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, end - start);
+                        end -= start;
+                        start = 0;
+                    }
+                    if (end == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    int read = in.read(buffer, end, buffer.length - end);
+                    if (read == -1) {
+                        pipeline.flush(writer);
+                        return; // El cliente cerró la conexión
+                    }
+                    end += read;
+                }
+                if (bodyStart == HttpRequestParser.INVALID) {
+                    pipeline.add(new Response(400, new JSONObject().put("error", "Solicitud inválida")), false);
+                    pipeline.flush(writer);
+                    return;
+                }
 
-            // Parsear la línea de solicitud
-            String requestLine = in.readLine();
-            if (requestLine == null || requestLine.isEmpty()) {
-                sendResponse(out, new Response(400, new JSONObject().put("error", "Solicitud inválida")));
-                return;
-            }
-
-            String[] requestParts = requestLine.split(" ");
-            if (requestParts.length < 2) {
-                sendResponse(out, new Response(400, new JSONObject().put("error", "Solicitud inválida")));
-                return;
-            }
+                // Leer cuerpo: primero lo que ya está en el buffer, después el resto del socket
+                HttpRequestHead head = parser.head();
+                Response invalidBody = invalidBodyFraming(head);
+                if (invalidBody != null) {
+                    pipeline.add(invalidBody, false);
+                    pipeline.flush(writer);
+                    return;
+                }
+                long contentLength = head.contentLength();
+                if (head.isChunked() || contentLength > STREAMED_BODY_THRESHOLD) {
+                    // Cuerpo grande o de longitud desconocida: el manejador lo lee del socket mientras se ejecuta,
+                    // así que no puede encolarse
+                    keepAlive = pipeline.flush(writer) && isKeepAlive(head) && ++served < maxKeepAliveRequests;
+                    ChunkedInputStream chunked = head.isChunked() ? new ChunkedInputStream(buffer, bodyStart, end, in) : null;
+                    InputStream body = chunked != null ? chunked : new BodyInputStream(buffer, bodyStart, end, in, contentLength);
+                    Response response = respond(clientIp, head, body);
+                    if (keepAlive) {
+                        try {
+                            body.transferTo(OutputStream.nullOutputStream()); // Descartar lo que el manejador no leyó
+                        } catch (IOException e) {
+                            return; // Conexión cerrada a mitad del cuerpo o cuerpo chunked inválido
+                        }
+                    }
+                    if (chunked != null) {
+                        start = chunked.bufferPosition(); // El decodificador reutiliza el buffer de la conexión
+                        end = chunked.bufferLimit();
+                    } else {
+                        start = bodyStart + (int) Math.min(end - bodyStart, contentLength);
+                    }
+                    pipeline.add(response, keepAlive);
+                    keepAlive = pipeline.flush(writer);
+                    continue;
+                }
+                byte[] bodyBytes = new byte[(int) contentLength];
+                int buffered = Math.min(end - bodyStart, bodyBytes.length);
+                System.arraycopy(buffer, bodyStart, bodyBytes, 0, buffered);
+                start = bodyStart + buffered;
+                if (in.readNBytes(bodyBytes, buffered, bodyBytes.length - buffered) < bodyBytes.length - buffered) {
+                    pipeline.flush(writer);
+                    return; // Conexión cerrada a mitad del cuerpo
+                }
 
-            String method = requestParts[0];
-            String path = requestParts[1];
+                keepAlive = isKeepAlive(head) && ++served < maxKeepAliveRequests;
+                boolean parallel = parallelPipelining && ResponsePipeline.isSafeMethod(head.method());
+                pipeline.add(() -> respond(clientIp, head, bodyBytes), keepAlive, parallel);
 
-            // Leer cabeceras
-            Map<String, String> headers = new HashMap<>();
-            String line;
-            while (!(line = in.readLine()).isEmpty()) {
-                String[] headerParts = line.split(": ", 2);
-                if (headerParts.length == 2) {
-                    headers.put(headerParts[0], headerParts[1]);
+                if (!keepAlive || pipeline.size() >= ResponsePipeline.MAX_PIPELINED_REQUESTS) {
+                    keepAlive = pipeline.flush(writer);
                 }
             }
+        } catch (SocketTimeoutException e) {
+            // Conexión inactiva: se cierra sin respuesta
+        }
+    }
+
+    /**
+     * Indica si la conexión debe mantenerse abierta tras la solicitud:
+     * en HTTP/1.1 salvo {@code Connection: close}; en HTTP/1.0 solo con {@code Connection: keep-alive}.
+     */
+    static boolean isKeepAlive(HttpRequestHead head) {
+        if (head.isHttp11()) {
+            return !head.headerEqualsIgnoreCase("Connection", "close");
+        }
+        return head.isHttp10() && head.headerEqualsIgnoreCase("Connection", "keep-alive");
+    }
 
-            // Leer cuerpo
-            StringBuilder body = new StringBuilder();
-            if (headers.containsKey("Content-Length")) {
-                int contentLength = Integer.parseInt(headers.get("Content-Length"));
-                char[] buffer = new char[contentLength];
-                in.read(buffer, 0, contentLength);
-                body.append(buffer);
+    /**
+     * Respuesta de error si la solicitud declara su cuerpo de forma no válida, o null si es válida:
+     * {@code Content-Length} no numérico o repetido con valores distintos, una codificación de transferencia
+     * distinta de {@code chunked} o ambas cabeceras a la vez (ambigüedades que permitirían colar una solicitud
+     * dentro de otra).
+     */
+    static Response invalidBodyFraming(HttpRequestHead head) {
+        if (head.hasHeader("Transfer-Encoding")) {
+            if (!head.isChunked()) {
+                return new Response(501, new JSONObject().put("error", "Transfer-Encoding no soportado"));
             }
+            return head.hasHeader("Content-Length")
+                    ? new Response(400, new JSONObject().put("error", "Content-Length y Transfer-Encoding a la vez"))
+                    : null;
+        }
+        return head.contentLength() < 0 ? invalidContentLength(-1) : null;
+    }
 
-            // Crear objetos Request y Response
-            Request request = new Request(clientSocket, method, path, headers, !body.isEmpty() ? new JSONObject(body.toString()) : new JSONObject());
-            Response response = new Response();
+    /**
+     * Respuesta para un {@code Content-Length} no válido (-1) o demasiado grande para leerlo en memoria.
+     */
+    static Response invalidContentLength(long contentLength) {
+        return contentLength < 0
+                ? new Response(400, new JSONObject().put("error", "Content-Length inválido"))
+                : new Response(413, new JSONObject().put("error", "Cuerpo de la solicitud demasiado grande"));
+    }
 
-            // Buscar la ruta coincidente
-            RouteMatch routeMatch = router.getRouteMatch(method, path);
-            if (routeMatch != null) {
-                request.setParams(routeMatch.getParams()); // Almacenar parámetros dinámicos
-                Handler handler = routeMatch.getHandler();
+    /**
+     * Construye la solicitud a partir de su cabecera ya analizada y la despacha.
+     * Los errores se convierten en la respuesta HTTP correspondiente.
+     * Es común a todos los motores de conexión.
+     */
+    Response respond(String clientIp, HttpRequestHead head, byte[] body) {
+        return respond(head, new Request(clientIp, head, body)); // El cuerpo se analiza solo si el manejador lo pide
+    }
 
-                // Ejecutar middlewares globales
-                MiddlewareChain globalChain = new MiddlewareChain(globalMiddlewares.iterator());
-                if (!globalChain.next(request, response)) {
-                    sendResponse(out, response); // Respuesta generada por un middleware global
-                    return;
-                }
+    /**
+     * Igual que {@link #respond(String, HttpRequestHead, byte[])}, con el cuerpo leído de la conexión
+     * a medida que el manejador lo consume.
+     */
+    Response respond(String clientIp, HttpRequestHead head, InputStream body) {
+        return respond(head, new Request(clientIp, head, body));
+    }
 
-                // Ejecutar middlewares específicos de la ruta
-                List<Middleware> routeMiddlewares = routeMatch.getMiddlewares();
-                if (routeMiddlewares != null && !routeMiddlewares.isEmpty()) {
-                    MiddlewareChain routeChain = new MiddlewareChain(routeMiddlewares.iterator());
-                    if (!routeChain.next(request, response)) {
-                        sendResponse(out, response); // Respuesta generada por un middleware de ruta
-                        return;
-                    }
-                }
+    private Response respond(HttpRequestHead head, Request request) {
+        Response response = handle(head, request);
+        response.setRequestMethod(head.method()); // A HEAD solo se le envía la cabecera
+        return response;
+    }
 
-                // Ejecutar el manejador
-                response = handler.handle(request);
-                sendResponse(out, response);
-            } else {
-                sendResponse(out, new Response(404, new JSONObject().put("error", "Ruta no encontrada")));
+    private Response handle(HttpRequestHead head, Request request) {
+        try {
+            Response response = dispatch(request);
+            String method = head.method();
+            if (method.equals("GET") || method.equals("HEAD")) {
+                if (etags) {
+                    response.weakETag();
+                }
+                response.setValidators(head.getHeader("If-None-Match"), head.getHeader("If-Modified-Since"));
             }
+            if (response.isChunked()) {
+                if (!head.isHttp11()) {
+                    response.closeDelimited(); // HTTP/1.0 no admite chunked: el cierre de la conexión marca el final
+                } else if (compression && isCompressible(response) && request.acceptsGzip()) {
+                    response.gzip();
+                }
+            }
+            return response;
         } catch (HttpException e) {
-            sendResponse(out, new Response(e.getStatusCode(), new JSONObject().put("error", e.getMessage())));
+            return new Response(e.getStatusCode(), new JSONObject().put("error", e.getMessage()));
         } catch (Exception e) {
             logger.log(System.Logger.Level.ERROR, "Error interno del servidor", e);
-            sendResponse(out, new Response(500, new JSONObject().put("error", "Error interno del servidor")));
+            return new Response(500, new JSONObject().put("error", "Error interno del servidor"));
         }
     }
 
+    private static boolean isCompressible(Response response) {
+        Map<String, String> headers = response.getHeaders();
+        String contentType = headers.get("Content-Type");
+        if (contentType == null || headers.containsKey("Content-Encoding")) {
+            return false;
+        }
+        return Response.isCompressible(contentType);
+    }
+
+    /**
+     * Busca la ruta de la solicitud y ejecuta sus middlewares y su manejador.
+     */
+    private Response dispatch(Request request) {
+        // Buscar la ruta coincidente
+        RouteMatch routeMatch = router.getRouteMatch(request.getMethod(), request.getPath());
+        if (routeMatch == null) {
+            return new Response(404, new JSONObject().put("error", "Ruta no encontrada"));
+        }
+        request.setPathParams(routeMatch.getPathParams()); // Parámetros dinámicos, sin copiarlos
+
+        // Middlewares globales, de la ruta y manejador, compilados al registrar la ruta
+        return routeMatch.getPipeline().handle(request);
+    }
+
     /**
-     * Envía una respuesta HTTP al cliente.
+     * Envía una respuesta HTTP al cliente escribiendo sus bytes directamente en el socket.
+     * Los archivos se escriben en el canal del socket, para que {@code transferTo} use {@code sendfile}.
      */
-    private void sendResponse(OutputStream out, Response response) throws IOException {
-        String httpResponse = response.build();
-        out.write(httpResponse.getBytes(StandardCharsets.UTF_8));
-        out.flush();
+    private void sendResponse(OutputStream out, SocketChannel channel, Response response) throws IOException {
+        if (response.isFile() && channel != null) {
+            response.writeTo(channel);
+        } else {
+            response.writeTo(out);
+        }
     }
 }
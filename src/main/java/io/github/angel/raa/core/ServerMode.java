@@ -0,0 +1,22 @@
+package io.github.angel.raa.core;
+
+/**
+ * Modos de ejecución disponibles para {@link Server}.
+ *
+ * <ul>
+ *     <li><b>BLOCKING</b>: un hilo del pool por conexión, leyendo con E/S bloqueante (modo por defecto).</li>
+ *     <li><b>NIO</b>: un pequeño grupo de hilos de eventos ({@code Selector}) lee las conexiones sin bloquear
+ *     y solo entrega al pool las solicitudes completas.</li>
+ *     <li><b>VIRTUAL_THREADS</b>: un hilo virtual por conexión. El tamaño del pool se ignora; los manejadores
+ *     que bloquean (bases de datos, llamadas HTTP) no agotan hilos de plataforma.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * Server server = new Server(8080, "localhost", 10, ServerMode.NIO);
+ * }</pre>
+ */
+public enum ServerMode {
+    BLOCKING,
+    NIO,
+    VIRTUAL_THREADS
+}
@@ -4,17 +4,31 @@ import io.github.angel.raa.annotations.Delete;
 import io.github.angel.raa.annotations.Get;
 import io.github.angel.raa.annotations.Post;
 import io.github.angel.raa.annotations.Put;
+import io.github.angel.raa.annotations.ValidatedRoute;
+import io.github.angel.raa.exceptions.HttpException;
+import io.github.angel.raa.http.Request;
 import io.github.angel.raa.http.Response;
 import io.github.angel.raa.handler.Handler;
 import io.github.angel.raa.middleware.Middleware;
+import io.github.angel.raa.middleware.MiddlewareChain;
+import io.github.angel.raa.middleware.ValidationMiddleware;
 import org.json.JSONObject;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 
 /**
  * Clase que representa un controlador en el enrutador.
@@ -22,6 +36,7 @@ import java.util.Map;
  *
  */
 public class Controller {
+    private static final System.Logger logger = System.getLogger(Controller.class.getName());
     private final String prefix;
     private final Map<String, Handler> routes = new HashMap<>();
     private final List<Middleware> middlewares = new ArrayList<>();
@@ -67,52 +82,150 @@ public class Controller {
 
     /**
      * Configura las rutas del controlador automáticamente basándose en los métodos anotados con @Get, @Post, @Put y @Delete.
+     * Si el procesador de anotaciones generó un {@link RouteRegistrar} para esta clase, se usa ese registro
+     * y no se recorren los métodos por reflexión.
      *
      */
 
     private void setupRoutesAutomatically() {
+        if (registerGeneratedRoutes()) {
+            return;
+        }
         for (Method method : this.getClass().getDeclaredMethods()) {
+            ValidatedRoute validated = method.getAnnotation(ValidatedRoute.class);
+            Class<?> validatedType = validated != null ? validated.value() : null;
             if (method.isAnnotationPresent(Get.class)) {
                 Get get = method.getAnnotation(Get.class);
-                String path = prefix + get.value();
-                routes.put("GET " + path, createHandler(method));
+                addAnnotatedRoute("GET", get.value(), createInvoker(method), validatedType);
             } else if (method.isAnnotationPresent(Post.class)) {
                 Post post = method.getAnnotation(Post.class);
-                String path = prefix + post.value();
-                routes.put("POST " + path, createHandler(method));
+                addAnnotatedRoute("POST", post.value(), createInvoker(method), validatedType);
             } else if (method.isAnnotationPresent(Put.class)) {
                 Put put = method.getAnnotation(Put.class);
-                String path = prefix + put.value();
-                routes.put("PUT " + path, createHandler(method));
+                addAnnotatedRoute("PUT", put.value(), createInvoker(method), validatedType);
             } else if (method.isAnnotationPresent(Delete.class)) {
                 Delete delete = method.getAnnotation(Delete.class);
-                String path = prefix + delete.value();
-                routes.put("DELETE " + path, createHandler(method));
+                addAnnotatedRoute("DELETE", delete.value(), createInvoker(method), validatedType);
             }
         }
     }
 
     /**
-     * Crea un manejador para un método del controlador.
+     * Registra las rutas con el {@link RouteRegistrar} generado para esta clase, si existe.
+     *
+     * @return si se encontró un registro generado
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean registerGeneratedRoutes() {
+        RouteRegistrar registrar = GeneratedRegistrars.INSTANCE.get(getClass());
+        if (registrar == null) {
+            return false;
+        }
+        registrar.register(this, this::addAnnotatedRoute);
+        return true;
+    }
+
+    private void addAnnotatedRoute(String method, String path, Handler invoker, Class<?> validatedType) {
+        routes.put(method + " " + prefix + path, createHandler(invoker, validatedType));
+    }
+
+    /**
+     * Crea el manejador de una ruta anotada: valida el cuerpo si la ruta tiene {@code @ValidatedRoute}
+     * y convierte las excepciones del método en respuestas. Es igual con el invocador generado y con el de reflexión:
+     * <ul>
+     *     <li>{@link HttpException} se propaga y el servidor responde con su código de estado.</li>
+     *     <li>{@link IllegalArgumentException} lanzada por el método: 400 con su mensaje.</li>
+     *     <li>Cualquier otra excepción del método: 500 con su mensaje.</li>
+     *     <li>Si no se puede invocar el método (solo con reflexión, p. ej. por su firma): 500 JSON.</li>
+     * </ul>
      *
      */
-    private Handler createHandler(Method method) {
+    private Handler createHandler(Handler invoker, Class<?> validatedType) {
+        Middleware validation = validatedType != null ? new ValidationMiddleware<>(validatedType) : null;
+        MiddlewareChain end = MiddlewareChain.of();
+        return request -> {
+            if (validation != null) {
+                Response response = new Response();
+                if (!validation.handle(request, response, end)) {
+                    return response; // Cuerpo inválido
+                }
+            }
+            try {
+                return invoker.handle(request);
+            } catch (HttpException e) {
+                throw e; // El servidor responde con su código de estado (p. ej. 400 si el cuerpo no es JSON)
+            } catch (IllegalArgumentException e) {
+                return new Response(400, e.getMessage()); // Bad Request
+            } catch (Exception e) {
+                return new Response(500, "Error interno del servidor: " + e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Genera una implementación de {@link Handler} que llama a {@code method} sobre este controlador.
+     * Si el método no tiene la firma {@code Response metodo(Request)} o la clase no permite generar
+     * el invocador, se usa la invocación por reflexión.
+     */
+    private Handler createInvoker(Method method) {
+        if (!Modifier.isStatic(method.getModifiers())
+                && method.getReturnType() == Response.class
+                && method.getParameterCount() == 1
+                && method.getParameterTypes()[0] == Request.class) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(getClass(), MethodHandles.lookup());
+                MethodHandle target = lookup.unreflect(method);
+                MethodType handleType = MethodType.methodType(Response.class, Request.class);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "handle",
+                        MethodType.methodType(Handler.class, getClass()), handleType, target, handleType);
+                return (Handler) site.getTarget().invoke(this);
+            } catch (Throwable e) {
+                logger.log(System.Logger.Level.DEBUG, "Se usará reflexión para " + method, e);
+            }
+        }
+        return reflectiveInvoker(method);
+    }
+
+    private Handler reflectiveInvoker(Method method) {
+        method.setAccessible(true);
         return request -> {
             try {
                 return (Response) method.invoke(this, request);
             } catch (InvocationTargetException e) {
                 Throwable cause = e.getCause();
-                if (cause instanceof IllegalArgumentException) {
-                    return new Response(400, cause.getMessage()); // Bad Request
-                } else {
-                    return new Response(500, "Error interno del servidor: " + cause.getMessage());
-
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
                 }
-            } catch (Exception e) {
+                throw new IllegalStateException(cause.getMessage(), cause);
+            } catch (IllegalAccessException | IllegalArgumentException e) {
                 return new Response(500, new JSONObject().put("Error", "Error al invocar el método del controlador"));
             }
         };
     }
 
-
+    /**
+     * Registros generados en tiempo de compilación, cargados una sola vez con {@link ServiceLoader}.
+     */
+    private static final class GeneratedRegistrars {
+        private static final Map<Class<?>, RouteRegistrar<?>> INSTANCE = load();
+
+        private static Map<Class<?>, RouteRegistrar<?>> load() {
+            Map<Class<?>, RouteRegistrar<?>> registrars = new HashMap<>();
+            @SuppressWarnings("unchecked") // ServiceLoader solo recibe la clase sin parametrizar
+            Class<RouteRegistrar<?>> type = (Class<RouteRegistrar<?>>) (Class<?>) RouteRegistrar.class;
+            Iterator<RouteRegistrar<?>> iterator = ServiceLoader.load(type, Controller.class.getClassLoader()).iterator();
+            while (true) {
+                try {
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    RouteRegistrar<?> registrar = iterator.next();
+                    registrars.put(registrar.controllerType(), registrar);
+                } catch (ServiceConfigurationError e) {
+                    logger.log(System.Logger.Level.WARNING, "No se pudo cargar un registro de rutas generado", e);
+                }
+            }
+            return Map.copyOf(registrars);
+        }
+    }
 }
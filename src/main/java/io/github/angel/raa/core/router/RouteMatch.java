@@ -1,9 +1,11 @@
 package io.github.angel.raa.core.router;
 
 import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.PathParams;
 import io.github.angel.raa.middleware.Middleware;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +13,8 @@ public class RouteMatch {
     private Handler handler;
     private Map<String, String> params;
     private List<Middleware> middlewares;
+    private Handler pipeline;
+    private PathParams pathParams;
 
     public RouteMatch() {
     }
@@ -32,6 +36,16 @@ public class RouteMatch {
         this.middlewares = middlewares != null ? middlewares : Collections.emptyList();
     }
 
+    /**
+     * Crea una coincidencia con la cadena ya compilada (middlewares globales, de ruta y manejador)
+     * y los parámetros de ruta como posiciones dentro de la ruta solicitada.
+     */
+    public RouteMatch(PathParams pathParams, Handler handler, List<Middleware> middlewares, Handler pipeline) {
+        this(null, handler, middlewares);
+        this.pathParams = pathParams;
+        this.pipeline = pipeline;
+    }
+
     public Handler getHandler() {
         return handler;
     }
@@ -40,10 +54,30 @@ public class RouteMatch {
         this.handler = handler;
     }
 
+    /**
+     * Cadena compilada de la ruta. Si no se compiló, es el propio manejador.
+     */
+    public Handler getPipeline() {
+        return pipeline != null ? pipeline : handler;
+    }
+
+    /**
+     * Parámetros de ruta como mapa modificable. Si se obtuvieron como posiciones, el mapa se crea en la primera llamada.
+     */
     public Map<String, String> getParams() {
+        if (params == null && pathParams != null) {
+            params = new HashMap<>(pathParams.toMap());
+        }
         return params;
     }
 
+    /**
+     * Parámetros de ruta sin copiar, o null si la coincidencia se creó con un mapa.
+     */
+    public PathParams getPathParams() {
+        return pathParams;
+    }
+
     public List<Middleware> getMiddlewares() {
         return middlewares;
     }
@@ -0,0 +1,42 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.Request;
+import io.github.angel.raa.http.Response;
+import io.github.angel.raa.middleware.Middleware;
+import io.github.angel.raa.middleware.MiddlewareChain;
+
+import java.util.List;
+
+/**
+ * Middlewares globales, middlewares de la ruta y manejador de una ruta, compilados una sola vez.
+ *
+ * <p>La cadena es inmutable, así que cada solicitud ejecuta cada middleware exactamente una vez
+ * sin crear iteradores ni cadenas nuevas.</p>
+ */
+final class RoutePipeline implements Handler {
+    private final MiddlewareChain chain;
+    private final Handler handler;
+
+    RoutePipeline(Middleware[] globalMiddlewares, List<Middleware> routeMiddlewares, Handler handler) {
+        Middleware[] middlewares = new Middleware[globalMiddlewares.length + routeMiddlewares.size()];
+        System.arraycopy(globalMiddlewares, 0, middlewares, 0, globalMiddlewares.length);
+        for (int i = 0; i < routeMiddlewares.size(); i++) {
+            middlewares[globalMiddlewares.length + i] = routeMiddlewares.get(i);
+        }
+        this.chain = MiddlewareChain.of(middlewares);
+        this.handler = handler;
+    }
+
+    /**
+     * Ejecuta los middlewares (primero los globales) y, si ninguno detiene la solicitud, el manejador.
+     */
+    @Override
+    public Response handle(Request request) {
+        Response response = new Response();
+        if (!chain.next(request, response)) {
+            return response; // Respuesta generada por un middleware
+        }
+        return handler.handle(request);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.handler.Handler;
+
+/**
+ * Registro de rutas de un controlador generado en tiempo de compilación.
+ *
+ * <p>El procesador de anotaciones del módulo {@code alba-processor} genera una implementación por cada
+ * controlador con métodos {@code @Get}, {@code @Post}, {@code @Put} o {@code @Delete}, y la declara en
+ * {@code META-INF/services}. {@link Controller} la usa en lugar de buscar los métodos por reflexión.</p>
+ *
+ * @param <C> tipo del controlador
+ */
+public interface RouteRegistrar<C extends Controller> {
+
+    /**
+     * Clase del controlador cuyas rutas registra.
+     */
+    Class<C> controllerType();
+
+    /**
+     * Registra las rutas del controlador, con llamadas directas a sus métodos.
+     */
+    void register(C controller, Routes routes);
+
+    /**
+     * Destino de las rutas registradas.
+     */
+    @FunctionalInterface
+    interface Routes {
+        /**
+         * Agrega una ruta relativa al prefijo del controlador.
+         *
+         * @param validatedType tipo con el que se valida el cuerpo ({@code @ValidatedRoute}) o null
+         */
+        void add(String method, String path, Handler handler, Class<?> validatedType);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.PathParams;
+import io.github.angel.raa.middleware.Middleware;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol de prefijos por segmentos de ruta para un método HTTP.
+ *
+ * <p>Cada nodo representa un segmento: los segmentos estáticos cuelgan de sus hijos estáticos y
+ * los parámetros ({@code :id}) de un único hijo de parámetro. La búsqueda recorre la ruta una sola vez
+ * y prueba siempre el hijo estático antes que el de parámetro, volviendo atrás si el estático no lleva
+ * a ninguna ruta. Así {@code /users/new} tiene prioridad sobre {@code /users/:id} sin depender del
+ * orden de registro.</p>
+ *
+ * <p>Las barras finales se ignoran ({@code /users/} equivale a {@code /users}).</p>
+ *
+ * <p>{@link Router} construye un árbol nuevo cuando cambian las rutas de su método y no lo modifica
+ * después de publicarlo, de modo que varios hilos pueden buscar en él sin sincronización.</p>
+ */
+final class RouteTree {
+    /**
+     * Con pocos hijos estáticos se comparan directamente los caracteres del segmento, sin crear cadenas.
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final int[] NO_PARAMS = new int[0];
+
+    private final Node root = new Node();
+    private int maxParams;
+
+    /**
+     * Registra una ruta mientras se construye el árbol. Si ya existía la misma ruta, se reemplaza.
+     */
+    void insert(String path, Handler handler, List<Middleware> middlewares, Handler pipeline) {
+        Node node = root;
+        List<String> paramNames = new ArrayList<>();
+        int end = trimTrailingSlashes(path);
+        int start = firstSegmentStart(path, end);
+        while (start <= end && end > 0) {
+            int slash = path.indexOf('/', start);
+            int segmentEnd = slash == -1 || slash > end ? end : slash;
+            String segment = path.substring(start, segmentEnd);
+            if (segment.startsWith(":")) {
+                paramNames.add(segment.substring(1));
+                if (node.paramChild == null) {
+                    node.paramChild = new Node();
+                }
+                node = node.paramChild;
+            } else {
+                node = node.staticChild(segment);
+            }
+            start = segmentEnd + 1;
+        }
+        maxParams = Math.max(maxParams, paramNames.size());
+        node.route = new Route(handler, paramNames.toArray(new String[0]), middlewares, pipeline);
+    }
+
+    /**
+     * Busca la ruta que coincide con {@code path} (sin cadena de consulta).
+     *
+     * @return la coincidencia con sus parámetros, guardados como posiciones dentro de {@code path},
+     * o null si ninguna ruta coincide
+     */
+    RouteMatch find(String path) {
+        int end = trimTrailingSlashes(path);
+        int[] params = maxParams == 0 ? NO_PARAMS : new int[maxParams * 2]; // Inicio y fin de cada parámetro
+        Route route = find(root, path, firstSegmentStart(path, end), end, params, 0);
+        if (route == null) {
+            return null;
+        }
+        PathParams pathParams = route.paramNames.length == 0
+                ? PathParams.EMPTY
+                : new PathParams(path, route.paramNames, params);
+        return new RouteMatch(pathParams, route.handler, route.middlewares, route.pipeline);
+    }
+
+    private Route find(Node node, String path, int start, int end, int[] params, int paramCount) {
+        if (start > end || end == 0) {
+            return node.route;
+        }
+        int slash = path.indexOf('/', start);
+        int segmentEnd = slash == -1 || slash > end ? end : slash;
+
+        Node child = node.findStatic(path, start, segmentEnd);
+        if (child != null) {
+            Route route = find(child, path, segmentEnd + 1, end, params, paramCount);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.paramChild != null) {
+            params[paramCount * 2] = start;
+            params[paramCount * 2 + 1] = segmentEnd;
+            return find(node.paramChild, path, segmentEnd + 1, end, params, paramCount + 1);
+        }
+        return null;
+    }
+
+    private static int trimTrailingSlashes(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int firstSegmentStart(String path, int end) {
+        return end > 0 && path.charAt(0) == '/' ? 1 : 0;
+    }
+
+    /**
+     * Ruta registrada en un nodo: su manejador, los nombres de sus parámetros en orden, sus middlewares
+     * y la cadena compilada que se ejecuta en cada solicitud.
+     */
+    private record Route(Handler handler, String[] paramNames, List<Middleware> middlewares, Handler pipeline) {
+    }
+
+    private static final class Node {
+        private String[] labels = new String[0];
+        private Node[] children = new Node[0];
+        private Map<String, Node> index;
+        private Node paramChild;
+        private Route route;
+
+        Node staticChild(String segment) {
+            Node existing = findStatic(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            Node child = new Node();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = segment;
+            children[children.length - 1] = child;
+            if (labels.length > LINEAR_SCAN_LIMIT) {
+                if (index == null) {
+                    index = new HashMap<>();
+                    for (int i = 0; i < labels.length - 1; i++) {
+                        index.put(labels[i], children[i]);
+                    }
+                }
+                index.put(segment, child);
+            }
+            return child;
+        }
+
+        Node findStatic(String path, int start, int end) {
+            if (index != null) {
+                return index.get(path.substring(start, end));
+            }
+            int length = end - start;
+            for (int i = 0; i < labels.length; i++) {
+                String label = labels[i];
+                if (label.length() == length && path.regionMatches(start, label, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -4,31 +4,36 @@ import io.github.angel.raa.exceptions.RouteException;
 import io.github.angel.raa.handler.Handler;
 import io.github.angel.raa.middleware.Middleware;
 
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase `Router`: Maneja las rutas y sus correspondientes manejadores en la aplicación.
  *
  * <p>Esta clase permite registrar rutas por método HTTP, buscar rutas eficientes y extraer
- * parámetros dinámicos en las solicitudes. Utiliza una estructura de datos optimizada para
- * realizar búsquedas rápidas y asignar los manejadores de forma eficiente.</p>
+ * parámetros dinámicos en las solicitudes. Cada método HTTP tiene su propio árbol de prefijos
+ * ({@link RouteTree}), de modo que la búsqueda depende de la longitud de la ruta y no del número
+ * de rutas registradas.</p>
  *
  * <h2>Características:</h2>
  * <ul>
- *     <li>Almacena rutas en un mapa estructurado por método HTTP.</li>
+ *     <li>Almacena rutas en un árbol de prefijos por segmentos para cada método HTTP.</li>
  *     <li>Permite definir rutas con parámetros dinámicos (ej. `/users/:id`).</li>
- *     <li>Ofrece una búsqueda eficiente de rutas mediante `getRouteMatch`.</li>
- *     <li>Facilita la extracción automática de parámetros dinámicos con `extractParams`.</li>
+ *     <li>Los segmentos estáticos tienen prioridad sobre los parámetros (`/users/new` antes que `/users/:id`).</li>
+ *     <li>Extrae los parámetros dinámicos durante la propia búsqueda con `getRouteMatch`.</li>
+ *     <li>Publica una tabla de rutas inmutable: se pueden agregar o eliminar rutas con el servidor en marcha.
+ *     La tabla se reconstruye una vez en la primera búsqueda tras los cambios, y solo para los métodos afectados,
+ *     así registrar muchas rutas seguidas no reconstruye los árboles en cada una.</li>
  * </ul>
  *
  * <h2>Métodos Principales:</h2>
  * <ul>
  *     <li><b>addRoute(String method, String path, Handler handler)</b>: Agrega una nueva ruta al enrutador.</li>
  *     <li><b>getRouteMatch(String method, String path)</b>: Obtiene el manejador correspondiente a una ruta específica.</li>
- *     <li><b>extractParams(String route, String path)</b>: Extrae los parámetros dinámicos de una ruta.</li>
  * </ul>
  *
  * <h2>Ejemplo de Uso:</h2>
@@ -50,9 +55,13 @@ import java.util.Map;
  * }</pre>
  */
 public class Router {
-    // Mapa para almacenar las rutas por método HTTP
-    private final Map<String, Map<String, Handler>> routes = new HashMap<>();
-    private final Map<String, List<Middleware>> routeMiddlewares = new HashMap<>();
+    // Rutas registradas, en orden de registro, por "MÉTODO ruta"
+    private final Map<String, RouteDefinition> definitions = new LinkedHashMap<>();
+    private Middleware[] globalMiddlewares = new Middleware[0];
+    // Tabla inmutable publicada: árbol de rutas por método HTTP; null si hay cambios sin publicar
+    private volatile Map<String, RouteTree> routes = Map.of();
+    private Map<String, RouteTree> published = Map.of();
+    private final Set<String> changedMethods = new HashSet<>();
 
     /**
      * Extrae la ruta sin parámetros de consulta.
@@ -70,37 +79,100 @@ public class Router {
      * Agrega una nueva ruta al enrutador.
      *
      */
-    public void addRoute(String method, String path, Handler handler, Middleware... middlewares) {
-        routes.computeIfAbsent(method.toUpperCase(), k -> new HashMap<>()).put(path, handler);
-        if (middlewares.length > 0) {
-            routeMiddlewares.put(method.toUpperCase() + " " + path, Arrays.asList(middlewares));
+    public synchronized void addRoute(String method, String path, Handler handler, Middleware... middlewares) {
+        String upperMethod = method.toUpperCase();
+        List<Middleware> routeMiddlewares = List.of(middlewares);
+        definitions.put(upperMethod + " " + path, new RouteDefinition(upperMethod, path, handler, routeMiddlewares,
+                new RoutePipeline(globalMiddlewares, routeMiddlewares, handler)));
+        changed(upperMethod);
+    }
+
+    /**
+     * Elimina una ruta registrada. Puede llamarse con el servidor en marcha:
+     * las solicitudes en curso terminan con la tabla anterior.
+     *
+     * @return si la ruta existía
+     */
+    public synchronized boolean removeRoute(String method, String path) {
+        String upperMethod = method.toUpperCase();
+        if (definitions.remove(upperMethod + " " + path) == null) {
+            return false;
+        }
+        changed(upperMethod);
+        return true;
+    }
+
+    /**
+     * Establece los middlewares globales, que se ejecutan antes que los de cada ruta,
+     * y vuelve a compilar la cadena de todas las rutas registradas.
+     *
+     */
+    public synchronized void setGlobalMiddlewares(List<Middleware> middlewares) {
+        globalMiddlewares = middlewares.toArray(new Middleware[0]);
+        definitions.replaceAll((key, route) -> new RouteDefinition(route.method(), route.path(), route.handler(),
+                route.middlewares(), new RoutePipeline(globalMiddlewares, route.middlewares(), route.handler())));
+        definitions.values().forEach(route -> changed(route.method()));
+    }
+
+    /**
+     * Anota que cambiaron las rutas de un método; la tabla se reconstruye en la próxima búsqueda.
+     */
+    private void changed(String method) {
+        changedMethods.add(method);
+        routes = null;
+    }
+
+    /**
+     * Construye árboles nuevos para los métodos que cambiaron, conserva los demás y publica la tabla
+     * con una sola escritura volátil. Las búsquedas nunca ven una tabla a medio construir; solo la primera
+     * tras un cambio toma el bloqueo.
+     */
+    private synchronized Map<String, RouteTree> publish() {
+        Map<String, RouteTree> table = routes;
+        if (table != null) {
+            return table; // Otro hilo ya la publicó
+        }
+        Map<String, RouteTree> rebuilt = new HashMap<>(published);
+        changedMethods.forEach(rebuilt::remove);
+        for (RouteDefinition route : definitions.values()) {
+            if (changedMethods.contains(route.method())) {
+                rebuilt.computeIfAbsent(route.method(), k -> new RouteTree())
+                        .insert(route.path(), route.handler(), route.middlewares(), route.pipeline());
+            }
         }
+        changedMethods.clear();
+        published = Map.copyOf(rebuilt);
+        routes = published;
+        return published;
+    }
+
+    /**
+     * Ruta tal como se registró, con su cadena de middlewares ya compilada.
+     */
+    private record RouteDefinition(String method, String path, Handler handler,
+                                   List<Middleware> middlewares, Handler pipeline) {
     }
 
     /**
      * Obtiene el manejador correspondiente a una ruta específica.
+     * Una solicitud {@code HEAD} sin ruta propia usa la ruta {@code GET}; el servidor no envía el cuerpo.
      *
      */
     public RouteMatch getRouteMatch(String method, String fullPath) {
         String path = extractPathWithoutQueryParams(fullPath);
 
-        Map<String, Handler> methodRoutes = routes.get(method.toUpperCase());
-        if (methodRoutes == null) {
-            return null;
+        method = method.toUpperCase();
+        Map<String, RouteTree> table = routes;
+        if (table == null) {
+            table = publish();
         }
-
-        for (Map.Entry<String, Handler> entry : methodRoutes.entrySet()) {
-            String routePath = entry.getKey();
-            Handler handler = entry.getValue();
-
-            Map<String, String> params = extractParams(routePath, path);
-            if (params != null) {
-                List<Middleware> middlewares = routeMiddlewares.get(method.toUpperCase() + " " + routePath);
-                return new RouteMatch(params, handler, middlewares);
-            }
+        RouteTree tree = table.get(method);
+        RouteMatch match = tree != null ? tree.find(path) : null;
+        if (match == null && method.equals("HEAD")) {
+            tree = table.get("GET");
+            match = tree != null ? tree.find(path) : null;
         }
-
-        return null;
+        return match;
     }
 
     /**
@@ -123,35 +195,6 @@ public class Router {
         }
     }
 
-    /**
-     * Extrae los parámetros dinámicos de una ruta.
-     *
-     */
-    private Map<String, String> extractParams(String routePath, String path) {
-        String[] routeParts = routePath.split("/");
-        String[] pathParts = path.split("/");
-
-        if (routeParts.length != pathParts.length) {
-            return null; // Las rutas no coinciden en longitud
-        }
-
-        Map<String, String> params = new HashMap<>();
-        for (int i = 0; i < routeParts.length; i++) {
-            String routePart = routeParts[i];
-            String pathPart = pathParts[i];
-
-            if (routePart.startsWith(":")) {
-                // Es un parámetro dinámico
-                String paramName = routePart.substring(1); // Eliminar el ":"
-                params.put(paramName, pathPart);
-            } else if (!routePart.equals(pathPart)) {
-                return null; // No coincide con la ruta estática
-            }
-        }
-
-        return params;
-    }
-
     /**
      * Agrega una ruta GET al enrutador.
      *
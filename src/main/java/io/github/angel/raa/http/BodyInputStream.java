@@ -0,0 +1,92 @@
+package io.github.angel.raa.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Cuerpo de una solicitud leído directamente de la conexión, limitado a su {@code Content-Length}.
+ *
+ * <p>Primero entrega los bytes del cuerpo que ya llegaron junto con la cabecera y después lee el resto
+ * del socket a medida que se piden, de modo que un manejador puede copiar una subida grande a disco o
+ * procesarla por partes con memoria constante. Nunca lee más allá del cuerpo: los bytes de la siguiente
+ * solicitud de la conexión quedan intactos.</p>
+ *
+ * <p>Si la conexión se cierra antes de completar el cuerpo se lanza {@link EOFException}.
+ * Cerrar el flujo no cierra la conexión.</p>
+ */
+public final class BodyInputStream extends InputStream {
+    private final byte[] buffer;
+    private int position;
+    private final int bufferEnd;
+    private final InputStream in;
+    private long remaining;
+
+    /**
+     * @param buffer buffer de lectura de la conexión
+     * @param start  posición del primer byte del cuerpo en {@code buffer}
+     * @param end    fin de los bytes leídos en {@code buffer}; pueden incluir solicitudes posteriores
+     * @param in     flujo de la conexión, del que se lee lo que falta del cuerpo
+     * @param length longitud del cuerpo ({@code Content-Length})
+     */
+    public BodyInputStream(byte[] buffer, int start, int end, InputStream in, long length) {
+        this.buffer = buffer;
+        this.position = start;
+        this.bufferEnd = (int) Math.min(end, start + length);
+        this.in = in;
+        this.remaining = length;
+    }
+
+    /**
+     * Bytes del cuerpo que aún no se han leído.
+     */
+    public long remaining() {
+        return remaining;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining == 0) {
+            return -1;
+        }
+        int value;
+        if (position < bufferEnd) {
+            value = buffer[position++] & 0xFF;
+        } else if ((value = in.read()) == -1) {
+            throw truncated();
+        }
+        remaining--;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining == 0) {
+            return -1;
+        }
+        int max = (int) Math.min(len, remaining);
+        int read;
+        if (position < bufferEnd) {
+            read = Math.min(max, bufferEnd - position);
+            System.arraycopy(buffer, position, b, off, read);
+            position += read;
+        } else if ((read = in.read(b, off, max)) == -1) {
+            throw truncated();
+        }
+        remaining -= read;
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        long available = (bufferEnd - position) + (position < bufferEnd ? 0 : in.available());
+        return (int) Math.min(available, remaining);
+    }
+
+    private EOFException truncated() {
+        return new EOFException("Conexión cerrada a mitad del cuerpo: faltan " + remaining + " bytes");
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.angel.raa.http;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de buffers de tamaño fijo usados para codificar la cabecera de las respuestas y los cuerpos JSON.
+ *
+ * <p>Evita reservar un buffer nuevo por respuesta. No usa {@link ThreadLocal}, de modo que funciona
+ * igual con hilos de plataforma y con hilos virtuales. Los buffers que no caben en el pool se descartan.</p>
+ */
+final class ByteBufferPool {
+    static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED = 256;
+    private static final Queue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger SIZE = new AtomicInteger();
+
+    private ByteBufferPool() {
+    }
+
+    /**
+     * Obtiene un buffer vacío de {@link #BUFFER_SIZE} bytes.
+     */
+    static ByteBuffer acquire() {
+        ByteBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        SIZE.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Devuelve un buffer al pool. Los buffers de otro tamaño se ignoran.
+     */
+    static void release(ByteBuffer buffer) {
+        if (buffer.capacity() != BUFFER_SIZE || SIZE.incrementAndGet() > MAX_POOLED) {
+            if (buffer.capacity() == BUFFER_SIZE) {
+                SIZE.decrementAndGet();
+            }
+            return;
+        }
+        POOL.offer(buffer);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.angel.raa.http;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rango de bytes de una cabecera {@code Range} ({@code bytes=0-499}), con ambos extremos incluidos.
+ *
+ * @param start primer byte
+ * @param end   último byte
+ */
+public record ByteRange(long start, long end) {
+    /**
+     * Con más rangos la cabecera se ignora y se envía el recurso completo: evita respuestas con miles
+     * de partes diminutas.
+     */
+    public static final int MAX_RANGES = 16;
+
+    public ByteRange {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Rango inválido: " + start + "-" + end);
+        }
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Valor de {@code Content-Range} para un recurso de {@code size} bytes.
+     */
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Rangos de la cabecera {@code Range} que caen dentro de un recurso de {@code size} bytes, ordenados
+     * y con los solapados o contiguos unidos. Los extremos que pasan del final se recortan.
+     *
+     * @return null si la cabecera falta, no es válida o pide demasiados rangos (se envía el recurso completo),
+     * o una lista vacía si ningún rango es satisfacible (416)
+     */
+    public static List<ByteRange> parse(String header, long size) {
+        if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+        String[] specs = header.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            int dash = spec.indexOf('-');
+            if (dash == -1) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            try {
+                if (first.isEmpty()) {
+                    // Sufijo: los últimos N bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && size > 0) {
+                        ranges.add(new ByteRange(Math.max(0, size - suffix), size - 1));
+                    }
+                } else {
+                    long start = Long.parseLong(first);
+                    long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                    if (start < 0 || end < start) {
+                        return null;
+                    }
+                    if (start < size) {
+                        ranges.add(new ByteRange(start, Math.min(end, size - 1)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> merged = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.angel.raa.http;
+
+import java.io.IOException;
+
+/**
+ * Decodificador incremental de cuerpos con {@code Transfer-Encoding: chunked}.
+ *
+ * <p>No copia datos: {@link #advance(byte[], int, int)} consume los bytes de control (tamaños, extensiones,
+ * fines de línea y trailers) y se detiene al llegar a datos del cuerpo, que quien lo usa copia a su destino
+ * e informa con {@link #dataConsumed(long)}. Así sirve tanto para leer del socket a medida que llegan los
+ * datos ({@link ChunkedInputStream}) como para decodificar en el propio buffer de una conexión NIO.</p>
+ *
+ * <p>Nunca consume bytes posteriores al último chunk y a sus trailers, que pertenecen a la siguiente solicitud.
+ * Las extensiones y los trailers se ignoran.</p>
+ */
+public final class ChunkedDecoder {
+    /**
+     * Longitud máxima de una línea de tamaño con sus extensiones, y de todos los trailers juntos.
+     */
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    private static final int SIZE = 0;
+    private static final int SIZE_EXTENSION = 1;
+    private static final int SIZE_LF = 2;
+    private static final int DATA = 3;
+    private static final int DATA_CR = 4;
+    private static final int DATA_LF = 5;
+    private static final int TRAILER = 6;
+    private static final int DONE = 7;
+
+    private int state = SIZE;
+    private long chunkSize;
+    private int digits;
+    private int lineLength;
+    private int trailerLength;
+    private long remaining;
+
+    /**
+     * Consume los bytes de control de {@code src[from, to)} hasta llegar a datos del cuerpo,
+     * al final del cuerpo o al final de los bytes disponibles.
+     *
+     * @return posición del primer byte no consumido
+     * @throws IOException si el formato chunked no es válido
+     */
+    public int advance(byte[] src, int from, int to) throws IOException {
+        int i = from;
+        while (i < to && state != DATA && state != DONE) {
+            byte b = src[i++];
+            switch (state) {
+                case SIZE -> {
+                    int digit = Character.digit(b, 16);
+                    if (digit >= 0) {
+                        if (chunkSize > (Long.MAX_VALUE >> 4)) {
+                            throw invalid("tamaño de chunk demasiado grande");
+                        }
+                        chunkSize = (chunkSize << 4) | digit;
+                        digits++;
+                    } else if (digits == 0) {
+                        throw invalid("falta el tamaño del chunk");
+                    } else if (b == ';' || b == ' ' || b == '\t') {
+                        state = SIZE_EXTENSION;
+                    } else if (b == '\r') {
+                        state = SIZE_LF;
+                    } else if (b == '\n') {
+                        endSizeLine();
+                    } else {
+                        throw invalid("tamaño de chunk no hexadecimal");
+                    }
+                }
+                case SIZE_EXTENSION -> {
+                    if (b == '\n') {
+                        endSizeLine();
+                    } else if (++lineLength > MAX_LINE_LENGTH) {
+                        throw invalid("extensión de chunk demasiado larga");
+                    }
+                }
+                case SIZE_LF -> {
+                    if (b != '\n') {
+                        throw invalid("se esperaba un fin de línea tras el tamaño");
+                    }
+                    endSizeLine();
+                }
+                case DATA_CR -> {
+                    if (b == '\r') {
+                        state = DATA_LF;
+                    } else if (b == '\n') {
+                        state = SIZE;
+                    } else {
+                        throw invalid("se esperaba un fin de línea tras los datos");
+                    }
+                }
+                case DATA_LF -> {
+                    if (b != '\n') {
+                        throw invalid("se esperaba un fin de línea tras los datos");
+                    }
+                    state = SIZE;
+                }
+                case TRAILER -> {
+                    if (b == '\n') {
+                        if (lineLength == 0) {
+                            state = DONE; // Línea vacía: fin del cuerpo
+                        }
+                        lineLength = 0;
+                    } else if (b != '\r') {
+                        lineLength++;
+                        if (++trailerLength > MAX_LINE_LENGTH) {
+                            throw invalid("trailers demasiado largos");
+                        }
+                    }
+                }
+                default -> throw new IllegalStateException();
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Bytes de datos del chunk actual que quedan por copiar; 0 si hay que seguir con {@link #advance}.
+     */
+    public long dataRemaining() {
+        return state == DATA ? remaining : 0;
+    }
+
+    /**
+     * Informa de que se han copiado {@code count} bytes de datos (como máximo {@link #dataRemaining()}).
+     */
+    public void dataConsumed(long count) {
+        remaining -= count;
+        if (remaining == 0 && state == DATA) {
+            state = DATA_CR;
+        }
+    }
+
+    /**
+     * Indica si ya se leyeron el último chunk y los trailers.
+     */
+    public boolean isDone() {
+        return state == DONE;
+    }
+
+    private void endSizeLine() {
+        lineLength = 0;
+        if (chunkSize == 0) {
+            state = TRAILER;
+        } else {
+            remaining = chunkSize;
+            state = DATA;
+        }
+        chunkSize = 0;
+        digits = 0;
+    }
+
+    private static IOException invalid(String reason) {
+        return new IOException("Cuerpo chunked inválido: " + reason);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.angel.raa.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Cuerpo de una solicitud con {@code Transfer-Encoding: chunked}, decodificado a medida que se lee de la conexión.
+ *
+ * <p>Usa el buffer de lectura de la conexión: primero decodifica los bytes que llegaron junto con la cabecera
+ * y, cuando se agotan, vuelve a llenarlo desde el socket. Los datos de chunks grandes se leen directamente
+ * al arreglo de quien llama. Al terminar el cuerpo, {@link #bufferPosition()} y {@link #bufferLimit()}
+ * indican qué bytes del buffer pertenecen ya a la siguiente solicitud.</p>
+ *
+ * <p>Si la conexión se cierra antes del último chunk se lanza {@link EOFException}.
+ * Cerrar el flujo no cierra la conexión.</p>
+ */
+public final class ChunkedInputStream extends InputStream {
+    private final ChunkedDecoder decoder = new ChunkedDecoder();
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private final InputStream in;
+    private byte[] single;
+
+    /**
+     * @param buffer buffer de lectura de la conexión; se reutiliza para leer el resto del cuerpo
+     * @param start  posición del primer byte del cuerpo en {@code buffer}
+     * @param end    fin de los bytes leídos en {@code buffer}
+     * @param in     flujo de la conexión
+     */
+    public ChunkedInputStream(byte[] buffer, int start, int end, InputStream in) {
+        this.buffer = buffer;
+        this.position = start;
+        this.limit = end;
+        this.in = in;
+    }
+
+    /**
+     * Posición en el buffer del primer byte no consumido.
+     */
+    public int bufferPosition() {
+        return position;
+    }
+
+    /**
+     * Fin de los bytes válidos del buffer.
+     */
+    public int bufferLimit() {
+        return limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (single == null) {
+            single = new byte[1];
+        }
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            position = decoder.advance(buffer, position, limit);
+            if (decoder.isDone()) {
+                return -1;
+            }
+            long available = decoder.dataRemaining();
+            if (available > 0) {
+                int max = (int) Math.min(len, available);
+                int read;
+                if (position < limit) {
+                    read = Math.min(max, limit - position);
+                    System.arraycopy(buffer, position, b, off, read);
+                    position += read;
+                } else if ((read = in.read(b, off, max)) == -1) {
+                    throw truncated();
+                }
+                decoder.dataConsumed(read);
+                return read;
+            }
+            // Los bytes de control siguientes aún no han llegado
+            int read = in.read(buffer, 0, buffer.length);
+            if (read == -1) {
+                throw truncated();
+            }
+            position = 0;
+            limit = read;
+        }
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(decoder.dataRemaining(), limit - position);
+    }
+
+    private static EOFException truncated() {
+        return new EOFException("Conexión cerrada a mitad del cuerpo chunked");
+    }
+}
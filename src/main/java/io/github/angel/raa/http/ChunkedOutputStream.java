@@ -0,0 +1,109 @@
+package io.github.angel.raa.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codifica con {@code Transfer-Encoding: chunked} el cuerpo de una respuesta de longitud desconocida.
+ *
+ * <p>Los datos se acumulan en un buffer y se envían como un chunk cuando se llena o con {@link #flush()}.
+ * El buffer reserva sitio para el tamaño del chunk y para el fin de línea, de modo que cada chunk sale
+ * en una sola escritura. {@link #close()} envía el último chunk ({@code 0\r\n\r\n}) pero no cierra
+ * el flujo de la conexión, que puede seguir usándose (keep-alive).</p>
+ */
+public final class ChunkedOutputStream extends OutputStream {
+    private static final int CHUNK_SIZE = 8 * 1024;
+    /**
+     * Hasta 8 dígitos hexadecimales y el fin de línea.
+     */
+    private static final int HEADER_SPACE = 10;
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[HEADER_SPACE + CHUNK_SIZE + 2];
+    private int count;
+    private boolean closed;
+
+    public ChunkedOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == CHUNK_SIZE) {
+            writeChunk();
+        }
+        buffer[HEADER_SPACE + count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (count + len > CHUNK_SIZE) {
+            writeChunk();
+        }
+        if (len >= CHUNK_SIZE) {
+            // Bloque grande: se envía como un chunk propio sin copiarlo
+            out.write(chunkHeader(len));
+            out.write(b, off, len);
+            out.write(HttpConstants.CRLF);
+            return;
+        }
+        System.arraycopy(b, off, buffer, HEADER_SPACE + count, len);
+        count += len;
+    }
+
+    /**
+     * Envía lo acumulado como un chunk y vacía el flujo de la conexión.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeChunk();
+        out.flush();
+    }
+
+    /**
+     * Envía lo acumulado y el último chunk. No cierra el flujo de la conexión.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeChunk();
+        out.write(LAST_CHUNK);
+        out.flush();
+    }
+
+    private void writeChunk() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        int start = HEADER_SPACE - 2;
+        buffer[start] = '\r';
+        buffer[start + 1] = '\n';
+        for (int size = count; ; size >>>= 4) {
+            buffer[--start] = HEX[size & 0xF];
+            if (size < 16) {
+                break;
+            }
+        }
+        buffer[HEADER_SPACE + count] = '\r';
+        buffer[HEADER_SPACE + count + 1] = '\n';
+        out.write(buffer, start, HEADER_SPACE + count + 2 - start);
+        count = 0;
+    }
+
+    private static byte[] chunkHeader(int size) {
+        String hex = Integer.toHexString(size);
+        byte[] header = new byte[hex.length() + 2];
+        for (int i = 0; i < hex.length(); i++) {
+            header[i] = (byte) hex.charAt(i);
+        }
+        header[hex.length()] = '\r';
+        header[hex.length() + 1] = '\n';
+        return header;
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.angel.raa.http;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cabecera {@code Date} (RFC 1123, {@code Sun, 06 Nov 1994 08:49:37 GMT}) precalculada.
+ *
+ * <p>Un único hilo daemon la vuelve a formatear una vez por segundo, de modo que las respuestas
+ * solo copian un {@code byte[]} ya codificado. El reloj es compartido por todos los servidores
+ * del proceso: se inicia con {@link #start()} y se detiene cuando todos los que lo iniciaron
+ * han llamado a {@link #stop()}. Mientras está detenido las respuestas no incluyen {@code Date}.</p>
+ */
+public final class DateHeader {
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static volatile byte[] current;
+    private static ScheduledExecutorService ticker;
+    private static ScheduledFuture<?> task;
+    private static int users;
+
+    private DateHeader() {
+    }
+
+    /**
+     * Inicia el reloj si es el primer usuario.
+     */
+    public static synchronized void start() {
+        if (users++ > 0) {
+            return;
+        }
+        refresh();
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "alba-date-header");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        task = ticker.scheduleAtFixedRate(DateHeader::refresh, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene el reloj cuando ya no quedan usuarios.
+     */
+    public static synchronized void stop() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        task.cancel(false);
+        task = null;
+        current = null;
+    }
+
+    public static boolean isRunning() {
+        return current != null;
+    }
+
+    /**
+     * Línea {@code Date: ...\r\n} codificada o null si el reloj está detenido.
+     */
+    static byte[] current() {
+        return current;
+    }
+
+    /**
+     * Fecha HTTP de un instante, en segundos enteros. Se usa, por ejemplo, para {@code Last-Modified}.
+     */
+    public static String format(long epochMillis) {
+        return FORMATTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /**
+     * Instante en milisegundos de una fecha HTTP, o -1 si falta o no es válida.
+     */
+    public static long parse(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static synchronized void refresh() {
+        if (users == 0) {
+            return; // Detenido mientras esta tarea esperaba
+        }
+        current = ("Date: " + FORMATTER.format(ZonedDateTime.now(ZoneOffset.UTC)) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+}
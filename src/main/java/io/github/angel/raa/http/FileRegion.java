@@ -0,0 +1,98 @@
+package io.github.angel.raa.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fragmento de un archivo usado como cuerpo de una respuesta. Ver {@link Response#file(Path, String)}.
+ *
+ * <p>El archivo no se lee al heap: se envía con {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+ * que en Linux copia del page cache al socket con {@code sendfile}. Se abre al enviarlo, así que puede
+ * reutilizarse en varias respuestas.</p>
+ *
+ * @param path     archivo
+ * @param position primer byte que se envía
+ * @param count    número de bytes que se envían
+ */
+public record FileRegion(Path path, long position, long count) {
+
+    public FileRegion {
+        if (path == null) {
+            throw new IllegalArgumentException("La ruta del archivo no puede ser nula");
+        }
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Fragmento de archivo inválido: " + position + "+" + count);
+        }
+    }
+
+    /**
+     * Fragmento con el archivo completo.
+     */
+    public static FileRegion of(Path path) throws IOException {
+        return new FileRegion(path, 0, Files.size(path));
+    }
+
+    /**
+     * Envía el fragmento a {@code target}. Si el canal implementa {@link Target} decide él cómo transferirlo;
+     * si no, se usa {@code transferTo}, que no usa {@code sendfile} con canales que no sean sockets.
+     * Si el archivo se acortó desde que se calculó el fragmento se lanza {@link EOFException}.
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (target instanceof Target direct) {
+                direct.transferFrom(file, position, count);
+                return;
+            }
+            long next = position;
+            long end = position + count;
+            while (next < end) {
+                long sent = file.transferTo(next, end - next, target);
+                if (sent == 0) {
+                    // Desde un hilo virtual el socket es no bloqueante por debajo y transferTo no espera
+                    // a que tenga sitio; write() sí lo hace, así que se envía un bloque con él
+                    sent = writeBlock(file, next, end, target);
+                }
+                next += sent;
+            }
+        }
+    }
+
+    /**
+     * Copia a {@code target} un bloque del archivo a través de un buffer del pool.
+     */
+    private long writeBlock(FileChannel file, long from, long end, WritableByteChannel target) throws IOException {
+        ByteBuffer block = ByteBufferPool.acquire();
+        try {
+            block.limit((int) Math.min(block.capacity(), end - from));
+            if (file.read(block, from) <= 0) {
+                throw truncated(path);
+            }
+            block.flip();
+            int read = block.remaining();
+            while (block.hasRemaining()) {
+                target.write(block);
+            }
+            return read;
+        } finally {
+            ByteBufferPool.release(block);
+        }
+    }
+
+    private static EOFException truncated(Path path) {
+        return new EOFException("El archivo terminó antes de lo esperado: " + path);
+    }
+
+    /**
+     * Canal que recibe archivos por su cuenta, por ejemplo la vista bloqueante de un socket no bloqueante,
+     * que debe esperar a que el socket sea escribible cuando {@code transferTo} no envía nada.
+     */
+    public interface Target {
+        void transferFrom(FileChannel file, long position, long count) throws IOException;
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.angel.raa.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fragmentos de respuesta HTTP codificados una sola vez al cargar la clase.
+ *
+ * <p>Las líneas de estado de todos los códigos estándar y los nombres de las cabeceras más usadas
+ * se guardan como {@code byte[]}, de modo que {@link Response} solo tiene que copiarlos al buffer.</p>
+ */
+final class HttpConstants {
+    static final byte[] CRLF = {'\r', '\n'};
+    static final byte[] HEADER_SEPARATOR = {':', ' '};
+    static final byte[] CONTENT_LENGTH = bytes("Content-Length: ");
+    static final byte[] SET_COOKIE = bytes("Set-Cookie: ");
+    static final byte[] TRANSFER_ENCODING_CHUNKED = bytes("Transfer-Encoding: chunked\r\n");
+
+    private static final String[] REASON_PHRASES = new String[600];
+    private static final byte[][] STATUS_LINES = new byte[600][];
+    private static final Map<String, byte[]> HEADER_NAMES = new HashMap<>();
+
+    static {
+        reason(100, "Continue");
+        reason(101, "Switching Protocols");
+        reason(102, "Processing");
+        reason(103, "Early Hints");
+        reason(200, "OK");
+        reason(201, "Created");
+        reason(202, "Accepted");
+        reason(203, "Non-Authoritative Information");
+        reason(204, "No Content");
+        reason(205, "Reset Content");
+        reason(206, "Partial Content");
+        reason(207, "Multi-Status");
+        reason(208, "Already Reported");
+        reason(226, "IM Used");
+        reason(300, "Multiple Choices");
+        reason(301, "Moved Permanently");
+        reason(302, "Found");
+        reason(303, "See Other");
+        reason(304, "Not Modified");
+        reason(305, "Use Proxy");
+        reason(307, "Temporary Redirect");
+        reason(308, "Permanent Redirect");
+        reason(400, "Bad Request");
+        reason(401, "Unauthorized");
+        reason(402, "Payment Required");
+        reason(403, "Forbidden");
+        reason(404, "Not Found");
+        reason(405, "Method Not Allowed");
+        reason(406, "Not Acceptable");
+        reason(407, "Proxy Authentication Required");
+        reason(408, "Request Timeout");
+        reason(409, "Conflict");
+        reason(410, "Gone");
+        reason(411, "Length Required");
+        reason(412, "Precondition Failed");
+        reason(413, "Content Too Large");
+        reason(414, "URI Too Long");
+        reason(415, "Unsupported Media Type");
+        reason(416, "Range Not Satisfiable");
+        reason(417, "Expectation Failed");
+        reason(418, "I'm a teapot");
+        reason(421, "Misdirected Request");
+        reason(422, "Unprocessable Content");
+        reason(423, "Locked");
+        reason(424, "Failed Dependency");
+        reason(425, "Too Early");
+        reason(426, "Upgrade Required");
+        reason(428, "Precondition Required");
+        reason(429, "Too Many Requests");
+        reason(431, "Request Header Fields Too Large");
+        reason(451, "Unavailable For Legal Reasons");
+        reason(500, "Internal Server Error");
+        reason(501, "Not Implemented");
+        reason(502, "Bad Gateway");
+        reason(503, "Service Unavailable");
+        reason(504, "Gateway Timeout");
+        reason(505, "HTTP Version Not Supported");
+        reason(506, "Variant Also Negotiates");
+        reason(507, "Insufficient Storage");
+        reason(508, "Loop Detected");
+        reason(510, "Not Extended");
+        reason(511, "Network Authentication Required");
+
+        for (String name : new String[]{
+                "Content-Type", "Content-Length", "Content-Encoding", "Connection", "Location",
+                "Server-Timing", "Set-Cookie", "WWW-Authenticate", "Cache-Control", "Date",
+                "Access-Control-Allow-Origin", "Access-Control-Allow-Methods", "Access-Control-Allow-Headers",
+                "Access-Control-Allow-Credentials", "Access-Control-Expose-Headers", "Access-Control-Max-Age"}) {
+            HEADER_NAMES.put(name, bytes(name + ": "));
+        }
+    }
+
+    private HttpConstants() {
+    }
+
+    /**
+     * Frase de estado estándar del código o {@code "Unknown Status"} si no es un código conocido.
+     */
+    static String reasonPhrase(int status) {
+        String reason = status >= 0 && status < REASON_PHRASES.length ? REASON_PHRASES[status] : null;
+        return reason != null ? reason : "Unknown Status";
+    }
+
+    /**
+     * Línea de estado completa ({@code HTTP/1.1 <código> <frase>\r\n}) o null si el código no es estándar.
+     */
+    static byte[] statusLine(int status) {
+        return status >= 0 && status < STATUS_LINES.length ? STATUS_LINES[status] : null;
+    }
+
+    /**
+     * Nombre de cabecera seguido de {@code ": "} o null si no es una de las cabeceras habituales.
+     */
+    static byte[] headerName(String name) {
+        return HEADER_NAMES.get(name);
+    }
+
+    private static void reason(int status, String phrase) {
+        REASON_PHRASES[status] = phrase;
+        STATUS_LINES[status] = bytes("HTTP/1.1 " + status + " " + phrase + "\r\n");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.angel.raa.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cabecera de una solicitud HTTP analizada por {@link HttpRequestParser}.
+ *
+ * <p>Guarda el bloque de bytes de la cabecera y las posiciones de cada elemento. Los nombres y valores
+ * de las cabeceras solo se convierten a {@link String} cuando se consultan, y la búsqueda por nombre
+ * compara bytes sin distinguir mayúsculas y minúsculas.</p>
+ */
+public final class HttpRequestHead {
+    private static final String[] COMMON_METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+
+    private final byte[] data;
+    private final int methodEnd;
+    private final int targetStart;
+    private final int targetEnd;
+    private final int versionStart;
+    private final int versionEnd;
+    private final int[] headerOffsets;
+    private final int headerCount;
+    private String method;
+    private String target;
+    private Map<String, String> headers;
+
+    HttpRequestHead(byte[] data, int methodEnd, int targetStart, int targetEnd,
+                    int versionStart, int versionEnd, int[] headerOffsets, int headerCount) {
+        this.data = data;
+        this.methodEnd = methodEnd;
+        this.targetStart = targetStart;
+        this.targetEnd = targetEnd;
+        this.versionStart = versionStart;
+        this.versionEnd = versionEnd;
+        this.headerOffsets = headerOffsets;
+        this.headerCount = headerCount;
+    }
+
+    /**
+     * Método HTTP. Los métodos habituales se devuelven como constantes, sin crear cadenas nuevas.
+     */
+    public String method() {
+        if (method == null) {
+            for (String common : COMMON_METHODS) {
+                if (regionEquals(0, methodEnd, common, false)) {
+                    return method = common;
+                }
+            }
+            method = new String(data, 0, methodEnd, StandardCharsets.US_ASCII);
+        }
+        return method;
+    }
+
+    /**
+     * Ruta solicitada, incluyendo la cadena de consulta.
+     */
+    public String target() {
+        if (target == null) {
+            target = new String(data, targetStart, targetEnd - targetStart, StandardCharsets.UTF_8);
+        }
+        return target;
+    }
+
+    /**
+     * Versión del protocolo ({@code HTTP/1.1}, {@code HTTP/1.0}) o cadena vacía si no se indicó.
+     */
+    public String version() {
+        if (regionEquals(versionStart, versionEnd, "HTTP/1.1", false)) {
+            return "HTTP/1.1";
+        }
+        if (regionEquals(versionStart, versionEnd, "HTTP/1.0", false)) {
+            return "HTTP/1.0";
+        }
+        return new String(data, versionStart, versionEnd - versionStart, StandardCharsets.US_ASCII);
+    }
+
+    public boolean isHttp11() {
+        return regionEquals(versionStart, versionEnd, "HTTP/1.1", false);
+    }
+
+    public boolean isHttp10() {
+        return regionEquals(versionStart, versionEnd, "HTTP/1.0", false);
+    }
+
+    public int headerCount() {
+        return headerCount;
+    }
+
+    /**
+     * Valor de una cabecera (sin distinguir mayúsculas en el nombre) o null si no está presente.
+     */
+    public String getHeader(String name) {
+        int index = indexOfHeader(name);
+        if (index < 0) {
+            return null;
+        }
+        int base = index * 4;
+        return new String(data, headerOffsets[base + 2], headerOffsets[base + 3] - headerOffsets[base + 2], StandardCharsets.UTF_8);
+    }
+
+    public boolean hasHeader(String name) {
+        return indexOfHeader(name) >= 0;
+    }
+
+    /**
+     * Compara el valor de una cabecera con {@code value} sin distinguir mayúsculas y sin crear cadenas.
+     */
+    public boolean headerEqualsIgnoreCase(String name, String value) {
+        int index = indexOfHeader(name);
+        if (index < 0) {
+            return false;
+        }
+        int base = index * 4;
+        return regionEquals(headerOffsets[base + 2], headerOffsets[base + 3], value, true);
+    }
+
+    /**
+     * Valor de {@code Content-Length} leído directamente de los bytes: 0 si no está presente y -1 si no es
+     * un número válido o si aparece varias veces con valores distintos (no se sabría dónde acaba el cuerpo).
+     */
+    public long contentLength() {
+        int index = indexOfHeader("Content-Length", 0);
+        if (index < 0) {
+            return 0;
+        }
+        long value = lengthAt(index);
+        while (value >= 0 && (index = indexOfHeader("Content-Length", index + 1)) >= 0) {
+            if (lengthAt(index) != value) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private long lengthAt(int index) {
+        int base = index * 4;
+        int start = headerOffsets[base + 2];
+        int end = headerOffsets[base + 3];
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Indica si el cuerpo llega con {@code Transfer-Encoding: chunked}. Es la única codificación de transferencia admitida,
+     * así que con varias cabeceras {@code Transfer-Encoding} el cuerpo no se considera chunked.
+     */
+    public boolean isChunked() {
+        int index = indexOfHeader("Transfer-Encoding", 0);
+        if (index < 0 || indexOfHeader("Transfer-Encoding", index + 1) >= 0) {
+            return false;
+        }
+        int base = index * 4;
+        return regionEquals(headerOffsets[base + 2], headerOffsets[base + 3], "chunked", true);
+    }
+
+    /**
+     * Todas las cabeceras como mapa (sin distinguir mayúsculas). Se construye en la primera llamada.
+     */
+    public Map<String, String> headers() {
+        if (headers == null) {
+            Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headerCount; i++) {
+                int base = i * 4;
+                map.put(new String(data, headerOffsets[base], headerOffsets[base + 1] - headerOffsets[base], StandardCharsets.US_ASCII),
+                        new String(data, headerOffsets[base + 2], headerOffsets[base + 3] - headerOffsets[base + 2], StandardCharsets.UTF_8));
+            }
+            headers = map;
+        }
+        return headers;
+    }
+
+    private int indexOfHeader(String name) {
+        return indexOfHeader(name, 0);
+    }
+
+    private int indexOfHeader(String name, int from) {
+        for (int i = from; i < headerCount; i++) {
+            int base = i * 4;
+            if (regionEquals(headerOffsets[base], headerOffsets[base + 1], name, true)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionEquals(int start, int end, String value, boolean ignoreCase) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            int a = data[start + i];
+            int b = value.charAt(i);
+            if (a != b && (!ignoreCase || toLowerAscii(a) != toLowerAscii(b))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLowerAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + 32 : c;
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.angel.raa.http;
+
+import java.util.Arrays;
+
+/**
+ * Analizador de la cabecera de una solicitud HTTP/1.x que trabaja directamente sobre bytes.
+ *
+ * <p>Recorre un {@code byte[]} reutilizable buscando los finales de línea, y solo anota las posiciones
+ * del método, la ruta, la versión y cada par nombre/valor de cabecera. No crea ningún {@link String}
+ * mientras analiza: al completar la cabecera se copia el bloque una sola vez en un {@link HttpRequestHead},
+ * que materializa los valores únicamente cuando se piden.</p>
+ *
+ * <p>El análisis es incremental: si la cabecera aún no está completa, {@link #parse(byte[], int, int)}
+ * devuelve {@link #NEED_MORE} y la siguiente llamada continúa desde donde se quedó. Una instancia
+ * pertenece a una conexión y no es segura para uso concurrente.</p>
+ *
+ * <pre>{@code
+ * HttpRequestParser parser = new HttpRequestParser();
+ * int bodyStart = parser.parse(buffer, 0, length);
+ * if (bodyStart >= 0) {
+ *     HttpRequestHead head = parser.head();
+ *     String host = head.getHeader("Host");
+ * }
+ * }</pre>
+ */
+public final class HttpRequestParser {
+    /**
+     * La cabecera todavía no está completa en el buffer.
+     */
+    public static final int NEED_MORE = -1;
+    /**
+     * La cabecera está mal formada.
+     */
+    public static final int INVALID = -2;
+
+    private static final int DEFAULT_MAX_HEADER_SIZE = 64 * 1024;
+
+    private final int maxHeaderSize;
+    private int scanned;
+    private HttpRequestHead head;
+    private int[] offsets = new int[32];
+
+    public HttpRequestParser() {
+        this(DEFAULT_MAX_HEADER_SIZE);
+    }
+
+    public HttpRequestParser(int maxHeaderSize) {
+        this.maxHeaderSize = maxHeaderSize;
+    }
+
+    /**
+     * Analiza la cabecera contenida en {@code buffer[from, to)}.
+     *
+     * @return índice absoluto del primer byte del cuerpo si la cabecera está completa,
+     * {@link #NEED_MORE} si faltan bytes o {@link #INVALID} si está mal formada o es demasiado grande
+     */
+    public int parse(byte[] buffer, int from, int to) {
+        // Ignorar líneas vacías antes de la línea de solicitud (RFC 9112, sección 2.2)
+        int start = from;
+        while (start < to && (buffer[start] == '\r' || buffer[start] == '\n')) {
+            start++;
+        }
+
+        int end = findHeaderEnd(buffer, Math.max(start, from + scanned), to);
+        if (end == NEED_MORE) {
+            scanned = Math.max(0, to - from - 3);
+            return to - from > maxHeaderSize ? INVALID : NEED_MORE;
+        }
+        scanned = 0;
+        if (end - from > maxHeaderSize) {
+            return INVALID;
+        }
+        return parseHead(buffer, start, end) ? end : INVALID;
+    }
+
+    /**
+     * Cabecera analizada en la última llamada a {@link #parse(byte[], int, int)} que la completó.
+     */
+    public HttpRequestHead head() {
+        return head;
+    }
+
+    /**
+     * Busca la línea vacía que cierra la cabecera ({@code \r\n\r\n}, o {@code \n\n}).
+     *
+     * @return índice del primer byte tras la línea vacía, o {@link #NEED_MORE}
+     */
+    private static int findHeaderEnd(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] != '\n') {
+                continue;
+            }
+            if (i + 1 < to && buffer[i + 1] == '\n') {
+                return i + 2;
+            }
+            if (i + 2 < to && buffer[i + 1] == '\r' && buffer[i + 2] == '\n') {
+                return i + 3;
+            }
+        }
+        return NEED_MORE;
+    }
+
+    /**
+     * Recorre la línea de solicitud y las cabeceras anotando sus posiciones, y copia el bloque una vez.
+     */
+    private boolean parseHead(byte[] buffer, int start, int end) {
+        int lineEnd = indexOf(buffer, start, end, (byte) '\n');
+        int line = trimCr(buffer, start, lineEnd);
+
+        int methodEnd = indexOf(buffer, start, line, (byte) ' ');
+        if (methodEnd <= start || methodEnd == line) {
+            return false;
+        }
+        int targetStart = methodEnd + 1;
+        int targetEnd = indexOf(buffer, targetStart, line, (byte) ' ');
+        if (targetEnd == targetStart) {
+            return false;
+        }
+        int versionStart = targetEnd < line ? targetEnd + 1 : line;
+
+        int count = 0;
+        int pos = lineEnd + 1;
+        while (pos < end) {
+            int next = indexOf(buffer, pos, end, (byte) '\n');
+            int lineLimit = trimCr(buffer, pos, next);
+            if (lineLimit == pos) {
+                break; // Línea vacía: fin de la cabecera
+            }
+            // Sin dos puntos, nombre vacío o que no es un token (incluye espacios antes de ':' y
+            // líneas plegadas que empiezan por SP/HTAB): se rechaza (RFC 9112, secciones 5.1 y 5.2)
+            int colon = indexOf(buffer, pos, lineLimit, (byte) ':');
+            if (colon == lineLimit || colon == pos || !isToken(buffer, pos, colon)) {
+                return false;
+            }
+            int valueStart = colon + 1;
+            while (valueStart < lineLimit && isWhitespace(buffer[valueStart])) {
+                valueStart++;
+            }
+            int valueEnd = lineLimit;
+            while (valueEnd > valueStart && isWhitespace(buffer[valueEnd - 1])) {
+                valueEnd--;
+            }
+            if (offsets.length < (count + 1) * 4) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            int base = count * 4;
+            offsets[base] = pos - start;
+            offsets[base + 1] = colon - start;
+            offsets[base + 2] = valueStart - start;
+            offsets[base + 3] = valueEnd - start;
+            count++;
+            pos = next + 1;
+        }
+
+        byte[] data = Arrays.copyOfRange(buffer, start, end);
+        head = new HttpRequestHead(data,
+                methodEnd - start,
+                targetStart - start, targetEnd - start,
+                versionStart - start, line - start,
+                Arrays.copyOf(offsets, count * 4), count);
+        return true;
+    }
+
+    private static int indexOf(byte[] buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int trimCr(byte[] buffer, int from, int lineEnd) {
+        return lineEnd > from && buffer[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private static boolean isToken(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            boolean tchar = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || "!#$%&'*+-.^_`|~".indexOf(b) >= 0;
+            if (!tchar) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.angel.raa.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * {@link ObjectMapper} compartido por {@link Request} y {@link Response}.
+ *
+ * <p>Crear un {@code ObjectMapper} es caro y sus cachés de serializadores solo sirven si se reutiliza,
+ * así que todo el framework usa esta instancia. Para registrar módulos o cambiar su configuración,
+ * se reemplaza con {@link #setMapper(ObjectMapper)} antes de iniciar el servidor.</p>
+ */
+public final class Json {
+    private static volatile Writers writers = new Writers(new ObjectMapper()
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false));
+
+    private Json() {
+    }
+
+    public static ObjectMapper mapper() {
+        return writers.mapper;
+    }
+
+    public static void setMapper(ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("El ObjectMapper no puede ser nulo");
+        }
+        writers = new Writers(objectMapper);
+    }
+
+    /**
+     * Escritor para valores de la clase indicada, creado una vez por clase. Ya tiene resuelto su serializador,
+     * así que escribir un valor no vuelve a buscarlo en las cachés del mapper.
+     */
+    static ObjectWriter writerFor(Class<?> type) {
+        Writers current = writers;
+        return type == null ? current.plain : current.byType.get(type);
+    }
+
+    /**
+     * Escritor para secuencias de valores: no vacía el flujo tras cada valor, de modo que los elementos
+     * se agrupan en chunks en lugar de enviarse uno a uno.
+     */
+    static ObjectWriter sequenceWriter() {
+        return writers.sequence;
+    }
+
+    /**
+     * Escritores derivados de un mapper. Se reemplazan juntos al cambiar el mapper.
+     */
+    private static final class Writers {
+        private final ObjectMapper mapper;
+        private final ObjectWriter plain;
+        private final ObjectWriter sequence;
+        private final ClassValue<ObjectWriter> byType;
+
+        Writers(ObjectMapper mapper) {
+            this.mapper = mapper;
+            this.plain = mapper.writer();
+            this.sequence = plain.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.byType = new ClassValue<>() {
+                @Override
+                protected ObjectWriter computeValue(Class<?> type) {
+                    return mapper.writerFor(type);
+                }
+            };
+        }
+    }
+}
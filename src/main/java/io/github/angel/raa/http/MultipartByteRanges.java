@@ -0,0 +1,78 @@
+package io.github.angel.raa.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cuerpo {@code multipart/byteranges} con varios rangos de un archivo, para respuestas 206.
+ *
+ * <p>Las cabeceras de cada parte se codifican al crearlo, de modo que la longitud total se conoce de antemano
+ * y se envía con {@code Content-Length}. Cada rango se transfiere como un {@link FileRegion}, sin pasar
+ * por el heap.</p>
+ */
+public final class MultipartByteRanges {
+    private final Path path;
+    private final List<ByteRange> ranges;
+    private final String boundary;
+    private final byte[][] partHeaders;
+    private final byte[] closing;
+    private final long length;
+
+    /**
+     * @param size        tamaño del archivo completo, para {@code Content-Range}
+     * @param contentType tipo del archivo, que se indica en cada parte
+     */
+    public MultipartByteRanges(Path path, long size, String contentType, List<ByteRange> ranges) {
+        this.path = path;
+        this.ranges = List.copyOf(ranges);
+        this.boundary = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextLong());
+        this.partHeaders = new byte[this.ranges.size()][];
+        long total = 0;
+        for (int i = 0; i < partHeaders.length; i++) {
+            ByteRange range = this.ranges.get(i);
+            String header = (i == 0 ? "" : "\r\n") + "--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: " + range.contentRange(size) + "\r\n\r\n";
+            partHeaders[i] = header.getBytes(StandardCharsets.UTF_8);
+            total += partHeaders[i].length + range.length();
+        }
+        this.closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.length = total + closing.length;
+    }
+
+    /**
+     * Valor de {@code Content-Type} de la respuesta, con el separador de las partes.
+     */
+    public String contentType() {
+        return "multipart/byteranges; boundary=" + boundary;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Escribe las partes en {@code target}, transfiriendo cada rango con {@link FileRegion#transferTo(WritableByteChannel)}.
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        for (int i = 0; i < partHeaders.length; i++) {
+            writeFully(target, partHeaders[i]);
+            ByteRange range = ranges.get(i);
+            new FileRegion(path, range.start(), range.length()).transferTo(target);
+        }
+        writeFully(target, closing);
+    }
+
+    private static void writeFully(WritableByteChannel target, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.angel.raa.http;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de ruta de una solicitud ({@code /users/:id}) guardados como posiciones dentro de la ruta.
+ *
+ * <p>El enrutador anota el inicio y el fin de cada valor en un arreglo de enteros, y los nombres se
+ * comparten entre todas las solicitudes de la misma ruta. Los valores solo se copian a un {@link String}
+ * cuando se piden como texto; {@link #getLong(String, long)} y {@link #getInt(String, int)} leen los
+ * dígitos directamente de la ruta.</p>
+ */
+public final class PathParams {
+    /**
+     * Parámetros de una ruta sin parámetros.
+     */
+    public static final PathParams EMPTY = new PathParams("", new String[0], new int[0]);
+
+    private final String path;
+    private final String[] names;
+    private final int[] bounds;
+    private Map<String, String> map;
+
+    /**
+     * @param path   ruta de la solicitud
+     * @param names  nombres de los parámetros en el orden en que aparecen en la ruta registrada
+     * @param bounds inicio y fin (exclusivo) de cada valor: {@code bounds[2 * i]} y {@code bounds[2 * i + 1]}
+     */
+    public PathParams(String path, String[] names, int[] bounds) {
+        this.path = path;
+        this.names = names;
+        this.bounds = bounds;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Posición del parámetro o -1 si la ruta no lo declara.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Valor del parámetro o null si la ruta no lo declara.
+     */
+    public String get(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : path.substring(bounds[2 * index], bounds[2 * index + 1]);
+    }
+
+    /**
+     * Valor numérico del parámetro, sin crear cadenas, o {@code defaultValue} si la ruta no lo declara.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public long getLong(String name, long defaultValue) {
+        int index = indexOf(name);
+        return index < 0 ? defaultValue : parseLong(path, bounds[2 * index], bounds[2 * index + 1]);
+    }
+
+    /**
+     * Valor numérico del parámetro, sin crear cadenas, o {@code defaultValue} si la ruta no lo declara.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido o no cabe en un int
+     */
+    public int getInt(String name, int defaultValue) {
+        int index = indexOf(name);
+        return index < 0 ? defaultValue : parseInt(path, bounds[2 * index], bounds[2 * index + 1]);
+    }
+
+    /**
+     * Parámetros como mapa inmutable. Se construye en la primera llamada.
+     */
+    public Map<String, String> toMap() {
+        if (map == null) {
+            if (names.length == 0) {
+                map = Collections.emptyMap();
+            } else {
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < names.length; i++) {
+                    values.put(names[i], path.substring(bounds[2 * i], bounds[2 * i + 1]));
+                }
+                map = Collections.unmodifiableMap(values);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Convierte {@code value[start, end)} en long con las mismas reglas que {@link Long#parseLong(String)}.
+     */
+    static long parseLong(CharSequence value, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Valor vacío");
+        }
+        int i = start;
+        boolean negative = false;
+        char first = value.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                throw invalid(value, start, end);
+            }
+        }
+        // Se acumula en negativo para poder representar Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw invalid(value, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(value, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Convierte {@code value[start, end)} en int con las mismas reglas que {@link Integer#parseInt(String)}.
+     */
+    static int parseInt(CharSequence value, int start, int end) {
+        long result = parseLong(value, start, end);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw invalid(value, start, end);
+        }
+        return (int) result;
+    }
+
+    private static NumberFormatException invalid(CharSequence value, int start, int end) {
+        return new NumberFormatException("Número inválido: \"" + value.subSequence(start, end) + "\"");
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.angel.raa.http;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Flujo que escribe en un buffer de {@link ByteBufferPool}, creciendo a un buffer mayor si no cabe.
+ * Lo usa {@link Response} para serializar cuerpos JSON sin crear un {@code byte[]} ni un {@link String}.
+ */
+final class PooledOutputStream extends OutputStream {
+    private ByteBuffer buffer = ByteBufferPool.acquire();
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureRemaining(len);
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * Buffer con lo escrito, listo para leer. Se devuelve al pool con {@link ByteBufferPool#release(ByteBuffer)}.
+     */
+    ByteBuffer contents() {
+        return buffer.flip();
+    }
+
+    private void ensureRemaining(int count) {
+        if (buffer.remaining() < count) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + count));
+            larger.put(buffer.flip());
+            ByteBufferPool.release(buffer); // Solo después de copiarlo: otro hilo puede reutilizarlo en cuanto vuelve al pool
+            buffer = larger;
+        }
+    }
+}
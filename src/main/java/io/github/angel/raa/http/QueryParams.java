@@ -0,0 +1,159 @@
+package io.github.angel.raa.http;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parámetros de la cadena de consulta ({@code ?page=2&size=20}) leídos bajo demanda.
+ *
+ * <p>No se analiza nada al crear la solicitud: cada consulta recorre la cadena original buscando la clave.
+ * Las claves y valores sin {@code %} ni {@code +} se comparan y convierten directamente sobre los
+ * caracteres, de modo que {@link #getInt(String, int)} y {@link #getLong(String, long)} no reservan memoria.
+ * Si la clave aparece varias veces, gana la última.</p>
+ */
+public final class QueryParams {
+    /**
+     * Consulta vacía.
+     */
+    public static final QueryParams EMPTY = new QueryParams("", 0);
+
+    private static final long NOT_FOUND = -1;
+
+    private final String target;
+    private final int start;
+
+    /**
+     * @param target ruta solicitada, incluyendo la consulta
+     * @param start  posición del primer carácter después de {@code ?}
+     */
+    private QueryParams(String target, int start) {
+        this.target = target;
+        this.start = start;
+    }
+
+    /**
+     * Parámetros de la consulta de {@code target}, o {@link #EMPTY} si no tiene.
+     */
+    public static QueryParams of(String target) {
+        int queryIndex = target.indexOf('?');
+        return queryIndex == -1 ? EMPTY : new QueryParams(target, queryIndex + 1);
+    }
+
+    public boolean contains(String name) {
+        return find(name) != NOT_FOUND;
+    }
+
+    /**
+     * Valor decodificado del parámetro o null si no está presente.
+     */
+    public String get(String name) {
+        long bounds = find(name);
+        if (bounds == NOT_FOUND) {
+            return null;
+        }
+        return decode(target, valueStart(bounds), valueEnd(bounds));
+    }
+
+    /**
+     * Valor numérico del parámetro o {@code defaultValue} si no está presente.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public long getLong(String name, long defaultValue) {
+        long bounds = find(name);
+        if (bounds == NOT_FOUND) {
+            return defaultValue;
+        }
+        int from = valueStart(bounds);
+        int to = valueEnd(bounds);
+        return isPlain(target, from, to) ? PathParams.parseLong(target, from, to) : Long.parseLong(decode(target, from, to));
+    }
+
+    /**
+     * Valor numérico del parámetro o {@code defaultValue} si no está presente.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido o no cabe en un int
+     */
+    public int getInt(String name, int defaultValue) {
+        long bounds = find(name);
+        if (bounds == NOT_FOUND) {
+            return defaultValue;
+        }
+        int from = valueStart(bounds);
+        int to = valueEnd(bounds);
+        return isPlain(target, from, to) ? PathParams.parseInt(target, from, to) : Integer.parseInt(decode(target, from, to));
+    }
+
+    /**
+     * Valor numérico del parámetro o {@code defaultValue} si no está presente.
+     *
+     * @throws NumberFormatException si el valor no es un número válido
+     */
+    public double getDouble(String name, double defaultValue) {
+        String value = get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /**
+     * Busca la última aparición de la clave.
+     *
+     * @return inicio y fin del valor empaquetados en un long, o {@link #NOT_FOUND}
+     */
+    private long find(String name) {
+        long found = NOT_FOUND;
+        int length = target.length();
+        int pairStart = start;
+        while (pairStart < length) {
+            int pairEnd = target.indexOf('&', pairStart);
+            if (pairEnd == -1) {
+                pairEnd = length;
+            }
+            int equals = target.indexOf('=', pairStart);
+            if (equals != -1 && equals < pairEnd && keyEquals(pairStart, equals, name)) {
+                found = ((long) (equals + 1) << 32) | pairEnd;
+            }
+            pairStart = pairEnd + 1;
+        }
+        return found;
+    }
+
+    private boolean keyEquals(int from, int to, String name) {
+        if (isPlain(target, from, to)) {
+            return to - from == name.length() && target.regionMatches(from, name, 0, name.length());
+        }
+        return decode(target, from, to).equals(name);
+    }
+
+    private static int valueStart(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    private static int valueEnd(long bounds) {
+        return (int) bounds;
+    }
+
+    /**
+     * Indica si el tramo no necesita decodificarse (no contiene {@code %} ni {@code +}).
+     */
+    private static boolean isPlain(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '+') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(String value, int from, int to) {
+        String raw = value.substring(from, to);
+        if (isPlain(raw, 0, raw.length())) {
+            return raw;
+        }
+        try {
+            return URLDecoder.decode(raw, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return raw; // Devolver el valor original si falla la decodificación
+        }
+    }
+}
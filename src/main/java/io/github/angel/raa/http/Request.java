@@ -1,17 +1,18 @@
 package io.github.angel.raa.http;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.angel.raa.exceptions.HttpException;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.Socket;
-import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,88 +43,123 @@ import java.util.Map;
  *      </pre>
  */
 public class Request {
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    /**
+     * Tamaño máximo de un cuerpo que se lee completo en memoria. Los cuerpos mayores solo pueden leerse
+     * con {@link #getBodyStream()}.
+     */
+    public static final int MAX_BUFFERED_BODY_SIZE = 64 * 1024 * 1024;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    private static final byte[] EMPTY_BODY = new byte[0];
     private final String clientIp;
-    private final Map<String, String> headers;
+    private final HttpRequestHead head;
+    private Map<String, String> headers;
     private final String method;
     private final String path;
-    private final JSONObject body;
-    private final Map<String, String> queryParams = new HashMap<>();
+    private byte[] rawBody; // Cuerpo sin procesar; null si la solicitud se creó con un JSONObject o aún no se leyó del flujo
+    private final InputStream bodyStream; // Cuerpo pendiente de leer de la conexión
+    private boolean bodyStreamTaken;
+    private JSONObject body; // Se analiza en el primer acceso
+    private final String target; // Ruta con la consulta, que se analiza bajo demanda
+    private QueryParams queryParams;
     private final Map<String, Object> attributes = new HashMap<>();
     private final Map<String, Object> sessionAttributes = new HashMap<>(); // Nuevo: Atributos de sesión
     private Map<String, String> params; // Parámetros dinámicos
+    private PathParams pathParams; // Parámetros dinámicos como posiciones dentro de la ruta
 
 
     public Request(Socket clientSocket, String method, String path, Map<String, String> headers, JSONObject body) {
-        this.clientIp = clientSocket.getInetAddress().getHostAddress();
+        this(clientSocket.getInetAddress().getHostAddress(), method, path, headers, body);
+    }
+
+    /**
+     * Construye una solicitud a partir de la dirección IP del cliente.
+     * Útil cuando la conexión no está representada por un {@link Socket} bloqueante (por ejemplo, con NIO).
+     *
+     */
+    public Request(String clientIp, String method, String path, Map<String, String> headers, JSONObject body) {
+        this(clientIp, method, path, headers, body, null);
+    }
+
+    /**
+     * Construye una solicitud a partir de una cabecera analizada por {@link HttpRequestParser}.
+     * Los valores de las cabeceras se convierten a texto solo cuando se consultan.
+     *
+     */
+    public Request(String clientIp, HttpRequestHead head, JSONObject body) {
+        this(clientIp, head, head.method(), head.target(), null, body, null, null);
+    }
+
+    /**
+     * Construye una solicitud con el cuerpo sin procesar.
+     * El cuerpo se analiza solo cuando se consulta, en la representación que se pida
+     * ({@link #getBody()}, {@link #getBodyAsMap()} o {@link #getBodyAs(Class)}).
+     *
+     */
+    public Request(String clientIp, HttpRequestHead head, byte[] body) {
+        this(clientIp, head, head.method(), head.target(), null, null, body != null ? body : EMPTY_BODY, null);
+    }
+
+    /**
+     * Construye una solicitud cuyo cuerpo se lee de {@code body} solo cuando se consulta.
+     * El flujo debe seguir abierto mientras se atiende la solicitud.
+     *
+     */
+    public Request(String clientIp, HttpRequestHead head, InputStream body) {
+        this(clientIp, head, head.method(), head.target(), null, null, null, body);
+    }
+
+    private Request(String clientIp, String method, String path, Map<String, String> headers, JSONObject body, byte[] rawBody) {
+        this(clientIp, null, method, path, headers, body, rawBody, null);
+    }
+
+    private Request(String clientIp, HttpRequestHead head, String method, String path, Map<String, String> headers,
+                    JSONObject body, byte[] rawBody, InputStream bodyStream) {
+        this.clientIp = clientIp;
+        this.head = head;
         this.method = method;
         this.path = extractPathWithoutQuery(path);
+        this.target = path;
         this.headers = headers;
-        this.body = body != null ? body : new JSONObject();
-
-
-        int queryIndex = path.indexOf('?');
-        if (queryIndex != -1) {
-            String queryString = path.substring(queryIndex + 1);
-            String[] pairs = queryString.split("&");
-            for (String pair : pairs) {
-                int equalsIndex = pair.indexOf('=');
-                if (equalsIndex != -1) {
-                    String key = decode(pair.substring(0, equalsIndex));
-                    String value = decode(pair.substring(equalsIndex + 1));
-                    queryParams.put(key, value);
-                }
-            }
-        }
+        this.rawBody = rawBody;
+        this.bodyStream = bodyStream;
+        this.body = rawBody == null && bodyStream == null && body == null ? new JSONObject() : body;
     }
 
     /**
      * Este método es útil para procesar solicitudes entrantes.
      * Construye una instancia de Request a partir de un InputStream y un Socket.
+     * El cuerpo no se lee aquí, sino de {@code inputStream} cuando se consulta.
      * Lanza una IOException si la solicitud está vacía o malformada.
      *
      */
     public static Request buildRequest(InputStream inputStream, Socket clientSocket) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        String requestLine = reader.readLine();
-        if (requestLine == null || requestLine.isEmpty()) {
-            throw new IOException("Solicitud vacía");
-        }
-
-        String[] requestParts = requestLine.split(" ");
-        if (requestParts.length < 2) {
-            throw new IOException("Solicitud malformada");
-        }
-
-        String method = requestParts[0]; // GET, POST, etc.
-        String path = requestParts[1]; // Ruta solicitada
-        Map<String, String> headers = new HashMap<>();
-
-        // Leer los encabezados HTTP
-        String line;
-        while ((line = reader.readLine()) != null && !line.isEmpty()) {
-            String[] headerParts = line.split(": ", 2);
-            if (headerParts.length == 2) {
-                headers.put(headerParts[0], headerParts[1]);
+        HttpRequestParser parser = new HttpRequestParser();
+        byte[] buffer = new byte[8192];
+        int length = 0;
+        int bodyStart;
+        while ((bodyStart = parser.parse(buffer, 0, length)) == HttpRequestParser.NEED_MORE) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
             }
-        }
-
-        // Leer el cuerpo de la solicitud si el método es POST o PUT
-        StringBuilder bodyBuilder = new StringBuilder();
-        if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
-            while (reader.ready()) {
-                bodyBuilder.append((char) reader.read());
+            int read = inputStream.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                throw new IOException(length == 0 ? "Solicitud vacía" : "Solicitud malformada");
             }
+            length += read;
         }
-
-        // Convertir el cuerpo en JSONObject si no está vacío
-        JSONObject body = new JSONObject();
-        if (!bodyBuilder.isEmpty()) {
-            body = new JSONObject(bodyBuilder.toString());
+        if (bodyStart == HttpRequestParser.INVALID) {
+            throw new IOException("Solicitud malformada");
         }
 
-        return new Request(clientSocket, method, path, headers, body);
+        // El cuerpo se lee según Content-Length, empezando por lo que ya está en el buffer
+        HttpRequestHead head = parser.head();
+        long contentLength = head.contentLength();
+        if (contentLength < 0) {
+            throw new IOException("Solicitud malformada");
+        }
+        BodyInputStream body = new BodyInputStream(buffer, bodyStart, length, inputStream, contentLength);
+        return new Request(clientSocket.getInetAddress().getHostAddress(), head, body);
     }
 
     /**
@@ -135,18 +171,6 @@ public class Request {
         return queryIndex != -1 ? fullPath.substring(0, queryIndex) : fullPath;
     }
 
-    /**
-     * Este método es útil para decodificar valores de parámetros de ruta y consulta.
-     *
-     */
-    private static String decode(String value) {
-        try {
-            return URLDecoder.decode(value, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            return value; // Devolver el valor original si falla la decodificación
-        }
-    }
-
     /**
      * Obtiene la dirección IP del cliente.
      *
@@ -178,24 +202,132 @@ public class Request {
 
      */
     public Map<String, String> getHeaders() {
+        if (headers == null && head != null) {
+            headers = head.headers();
+        }
         return headers;
     }
 
     /**
-     * Obtiene el cuerpo de la solicitud.
+     * Obtiene el cuerpo de la solicitud. Se analiza en la primera llamada; un cuerpo vacío es un objeto vacío.
      *
-
+     * @throws HttpException con estado 400 si el cuerpo no es un objeto JSON válido
      */
     public JSONObject getBody() {
+        if (body == null) {
+            byte[] bytes = getBodyBytes();
+            try {
+                body = bytes.length == 0 ? new JSONObject() : new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+            } catch (JSONException e) {
+                throw new HttpException(400, "El cuerpo de la solicitud no es un JSON válido");
+            }
+        }
         return body;
     }
 
+    /**
+     * Cuerpo de la solicitud tal como llegó, sin analizar.
+     * Si el cuerpo aún está en la conexión, se lee completo en memoria.
+     *
+     * @throws HttpException con estado 413 si el cuerpo supera {@link #MAX_BUFFERED_BODY_SIZE}
+     * @throws IllegalStateException si el cuerpo ya se consumió con {@link #getBodyStream()}
+     */
+    public byte[] getBodyBytes() {
+        if (rawBody == null && bodyStream != null) {
+            rawBody = readBodyStream();
+        }
+        return rawBody != null ? rawBody : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cuerpo de la solicitud como texto UTF-8, sin analizar.
+     */
+    public String getBodyText() {
+        return rawBody == null && bodyStream == null ? body.toString() : new String(getBodyBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cuerpo de la solicitud como flujo de bytes.
+     *
+     * <p>Con el motor bloqueante, los cuerpos grandes se leen directamente de la conexión a medida que
+     * se consumen, sin cargarlos en memoria; el flujo solo es válido mientras se atiende la solicitud y
+     * puede leerse una sola vez. Lo que el manejador no lea se descarta antes de la siguiente solicitud.
+     * En los demás casos el flujo recorre el cuerpo ya leído.</p>
+     */
+    public InputStream getBodyStream() {
+        if (rawBody == null && bodyStream != null) {
+            if (bodyStreamTaken) {
+                throw new IllegalStateException("El flujo del cuerpo ya se entregó");
+            }
+            bodyStreamTaken = true;
+            return bodyStream;
+        }
+        return new ByteArrayInputStream(getBodyBytes());
+    }
+
+    /**
+     * Indica si el cuerpo todavía se lee directamente de la conexión.
+     */
+    public boolean isBodyStreamed() {
+        return rawBody == null && bodyStream != null;
+    }
+
+    private byte[] readBodyStream() {
+        if (bodyStreamTaken) {
+            throw new IllegalStateException("El cuerpo ya se consumió con getBodyStream()");
+        }
+        if (head != null && head.contentLength() > MAX_BUFFERED_BODY_SIZE) {
+            throw new HttpException(413, "Cuerpo de la solicitud demasiado grande");
+        }
+        try {
+            byte[] bytes = bodyStream.readNBytes(MAX_BUFFERED_BODY_SIZE + 1);
+            if (bytes.length > MAX_BUFFERED_BODY_SIZE) {
+                throw new HttpException(413, "Cuerpo de la solicitud demasiado grande");
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el cuerpo de la solicitud", e);
+        }
+    }
+
+    /**
+     * Indica si la solicitud no tiene cuerpo (o es un objeto JSON vacío), sin analizarlo.
+     */
+    public boolean isBodyEmpty() {
+        if (isBodyStreamed()) {
+            return !head.isChunked() && head.contentLength() == 0; // Un cuerpo chunked solo se sabe vacío al leerlo
+        }
+        return rawBody != null ? rawBody.length == 0 : body.isEmpty();
+    }
+
     /**
      * Obtiene el valor de un encabezado específico.
      *
      */
     public String getHeader(String key) {
-        return headers.get(key);
+        if (headers != null) {
+            return headers.get(key);
+        }
+        return head != null ? head.getHeader(key) : null;
+    }
+
+    /**
+     * Indica si {@code Accept-Encoding} incluye gzip (o {@code *}) sin {@code q=0}.
+     */
+    public boolean acceptsGzip() {
+        String acceptEncoding = getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon == -1 ? coding : coding.substring(0, semicolon)).trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                String params = semicolon == -1 ? "" : coding.substring(semicolon + 1).replace(" ", "");
+                return !params.matches("(?i)q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     /**
@@ -215,11 +347,16 @@ public class Request {
     }
 
     /**
-     * Obtiene los parámetros de la solicitud.
+     * Obtiene los parámetros de la solicitud. El mapa es modificable y se construye en la primera llamada;
+     * desde entonces los demás métodos leen los parámetros de él.
      *
      */
     public Map<String, String> getParams() {
-        return params != null ? params : new HashMap<>();
+        if (params == null) {
+            params = pathParams != null ? new HashMap<>(pathParams.toMap()) : new HashMap<>();
+            pathParams = null;
+        }
+        return params;
     }
 
     /**
@@ -228,6 +365,16 @@ public class Request {
      */
     public void setParams(Map<String, String> params) {
         this.params = params;
+        this.pathParams = null;
+    }
+
+    /**
+     * Establece los parámetros de ruta encontrados por el enrutador, sin copiarlos a un mapa.
+     *
+     */
+    public void setPathParams(PathParams pathParams) {
+        this.pathParams = pathParams;
+        this.params = null;
     }
 
     /**
@@ -237,7 +384,7 @@ public class Request {
      *
      */
     public String getPathParam(String key) throws IllegalArgumentException {
-        return params.getOrDefault(key, null);
+        return pathParams != null ? pathParams.get(key) : getParams().get(key);
     }
 
     /**
@@ -248,10 +395,27 @@ public class Request {
      *
      */
     public Long getPathParamAsLong(String key) throws NullPointerException, IllegalArgumentException {
-        String value = params.get(key);
+        if (pathParams != null) {
+            return pathParams.contains(key) ? pathParams.getLong(key, 0) : null;
+        }
+        String value = getParams().get(key);
         return value != null ? Long.parseLong(value) : null;
     }
 
+    /**
+     * Obtiene el valor de un parámetro de ruta como long, leyendo los dígitos directamente de la ruta.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public long getPathParamAsLong(String key, long defaultValue) {
+        if (pathParams != null) {
+            return pathParams.getLong(key, defaultValue);
+        }
+        String value = getParams().get(key);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
     /**
      * Obtiene el valor de un parámetro de ruta como Integer.
      * Si el valor no es un número válido, devuelve null.
@@ -260,10 +424,27 @@ public class Request {
      *
      */
     public Integer getPathParamAsInt(String key) throws NullPointerException, IllegalArgumentException {
-        String value = params.get(key);
+        if (pathParams != null) {
+            return pathParams.contains(key) ? pathParams.getInt(key, 0) : null;
+        }
+        String value = getParams().get(key);
         return value != null ? Integer.parseInt(value) : null;
     }
 
+    /**
+     * Obtiene el valor de un parámetro de ruta como int, leyendo los dígitos directamente de la ruta.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public int getPathParamAsInt(String key, int defaultValue) {
+        if (pathParams != null) {
+            return pathParams.getInt(key, defaultValue);
+        }
+        String value = getParams().get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
     /**
      * Obtiene el valor de un parámetro de ruta como Double.
      * Si el valor no es un número válido, devuelve null.
@@ -273,10 +454,21 @@ public class Request {
 
      */
     public Double getPathParamAsDouble(String key) {
-        String value = params.get(key);
+        String value = getPathParam(key);
         return value != null ? Double.parseDouble(value) : null;
     }
 
+    /**
+     * Obtiene el valor de un parámetro de ruta como double.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número válido
+     */
+    public double getPathParamAsDouble(String key, double defaultValue) {
+        String value = getPathParam(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
     /**
      * Obtiene el valor de un parámetro de consulta.
      * Si el parámetro no existe, devuelve null.
@@ -284,7 +476,18 @@ public class Request {
      *
      */
     public String getQueryParam(String key) throws NullPointerException, IllegalArgumentException {
-        return queryParams.getOrDefault(key, null);
+        return getQueryParams().get(key);
+    }
+
+    /**
+     * Parámetros de consulta. La cadena de consulta se analiza solo cuando se pide un parámetro.
+     *
+     */
+    public QueryParams getQueryParams() {
+        if (queryParams == null) {
+            queryParams = QueryParams.of(target);
+        }
+        return queryParams;
     }
 
     /**
@@ -295,8 +498,18 @@ public class Request {
 
      */
     public Long getQueryParamAsLong(String key) throws NumberFormatException, NullPointerException {
-        String value = queryParams.get(key);
-        return value != null ? Long.parseLong(value) : null;
+        QueryParams query = getQueryParams();
+        return query.contains(key) ? query.getLong(key, 0) : null;
+    }
+
+    /**
+     * Obtiene el valor de un parámetro de consulta como long, sin crear cadenas ni objetos.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public long getQueryParamAsLong(String key, long defaultValue) {
+        return getQueryParams().getLong(key, defaultValue);
     }
 
     /**
@@ -307,8 +520,18 @@ public class Request {
 
      */
     public Integer getQueryParamAsInt(String key) throws NumberFormatException, NullPointerException {
-        String value = queryParams.get(key);
-        return value != null ? Integer.parseInt(value) : null;
+        QueryParams query = getQueryParams();
+        return query.contains(key) ? query.getInt(key, 0) : null;
+    }
+
+    /**
+     * Obtiene el valor de un parámetro de consulta como int, sin crear cadenas ni objetos.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número entero válido
+     */
+    public int getQueryParamAsInt(String key, int defaultValue) {
+        return getQueryParams().getInt(key, defaultValue);
     }
 
     /**
@@ -319,10 +542,20 @@ public class Request {
 
      */
     public Double getQueryParamAsDouble(String key) throws NumberFormatException, NullPointerException {
-        String value = queryParams.get(key);
+        String value = getQueryParam(key);
         return value != null ? Double.parseDouble(value) : null;
     }
 
+    /**
+     * Obtiene el valor de un parámetro de consulta como double.
+     * Si el parámetro no existe, devuelve {@code defaultValue}.
+     *
+     * @throws NumberFormatException si el valor no es un número válido
+     */
+    public double getQueryParamAsDouble(String key, double defaultValue) {
+        return getQueryParams().getDouble(key, defaultValue);
+    }
+
     /**
      * Obtene el valor de un atributo de sesión.
      *
@@ -338,6 +571,7 @@ public class Request {
 
      */
     public String getBodyString(String key) {
+        JSONObject body = getBody();
         return body.has(key) ? body.getString(key) : null;
     }
 
@@ -347,6 +581,7 @@ public class Request {
 
      */
     public Long getBodyLong(String key) {
+        JSONObject body = getBody();
         return body.has(key) ? body.getLong(key) : null;
     }
 
@@ -355,6 +590,7 @@ public class Request {
      *
      */
     public Integer getBodyInt(String key) {
+        JSONObject body = getBody();
         return body.has(key) ? body.getInt(key) : null;
     }
 
@@ -363,40 +599,73 @@ public class Request {
      *
      */
     public Double getBodyDouble(String key) {
+        JSONObject body = getBody();
         return body.has(key) ? body.getDouble(key) : null;
     }
 
     /**
      * Obtiene el cuerpo como un mapa de objetos.
+     * Si el cuerpo aún no se ha analizado, Jackson lo lee directamente de los bytes sin pasar por {@link JSONObject}.
      *
+     * @throws HttpException con estado 400 si el cuerpo no es un objeto JSON válido
      */
     public Map<String, Object> getBodyAsMap() {
-        return body.toMap();
+        if (body != null) {
+            return body.toMap();
+        }
+        byte[] bytes = getBodyBytes();
+        if (bytes.length == 0) {
+            return new HashMap<>();
+        }
+        try {
+            return Json.mapper().readValue(bytes, MAP_TYPE);
+        } catch (IOException e) {
+            throw new HttpException(400, "El cuerpo de la solicitud no es un JSON válido");
+        }
     }
 
+    /**
+     * Obtiene el cuerpo como un objeto de la clase especificada.
+     * Jackson lee directamente los bytes del cuerpo, sin construir un {@link JSONObject}.
+     *
+     * @throws IllegalArgumentException si el cuerpo está vacío, no es JSON válido o no encaja en la clase
+     * @throws HttpException con estado 413 si el cuerpo es demasiado grande
+     * @throws UncheckedIOException si no se pudo leer el cuerpo de la conexión
+     */
     public <T> T getBodyAs(Class<T> clazz) throws IllegalArgumentException {
-        if (body == null || body.isEmpty()) {
-            throw new IllegalArgumentException("El cuerpo de la solicitud está vacío");
-        }
+        byte[] bytes = getNonEmptyBodyBytes();
         try {
-            return objectMapper.readValue(body.toString(), clazz);
-        } catch (Exception e) {
+            return Json.mapper().readValue(bytes, clazz);
+        } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Error al convertir el cuerpo a la clase especificada", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el cuerpo de la solicitud", e);
         }
     }
 
     /**
-     * Obtiene el cuerpo como un objeto de la clase especificada.
+     * Obtiene el cuerpo como un objeto del tipo especificado.
+     *
+     * @throws IllegalArgumentException si el cuerpo está vacío, no es JSON válido o no encaja en el tipo
+     * @throws HttpException con estado 413 si el cuerpo es demasiado grande
+     * @throws UncheckedIOException si no se pudo leer el cuerpo de la conexión
      */
     public <T> T getBodyAs(TypeReference<T> typeReference) throws IllegalArgumentException {
-        if (body == null || body.isEmpty()) {
-            throw new IllegalArgumentException("El cuerpo de la solicitud está vacío");
-        }
+        byte[] bytes = getNonEmptyBodyBytes();
         try {
-            return objectMapper.readValue(body.toString(), typeReference);
-        } catch (Exception e) {
+            return Json.mapper().readValue(bytes, typeReference);
+        } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Error al convertir el cuerpo a la clase especificada", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el cuerpo de la solicitud", e);
+        }
+    }
+
+    private byte[] getNonEmptyBodyBytes() {
+        if (isBodyEmpty()) {
+            throw new IllegalArgumentException("El cuerpo de la solicitud está vacío");
         }
+        return getBodyBytes(); // Sus errores (413, fallo de lectura) no son un cuerpo mal formado
     }
 
     public String getParameter(String csrf) {
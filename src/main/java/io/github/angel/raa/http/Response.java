@@ -1,16 +1,36 @@
 package io.github.angel.raa.http;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.angel.raa.exceptions.RouteException;
 import io.github.angel.raa.security.CsrfToken;
 import io.github.angel.raa.templates.TemplateProcessor;
 import org.json.JSONObject;
 
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serial;
 import java.io.Serializable;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Clase que representa una respuesta HTTP
@@ -36,14 +56,28 @@ import java.util.Map;
 public class Response implements Serializable {
     @Serial
     private static final long serialVersionUID = -318743879132789673L;
+    private static final byte[] EMPTY_BODY = new byte[0];
     private final Map<String, String> headers = new HashMap<>();
     private final Map<String, String> cookies = new HashMap<>();
-    private final TemplateProcessor templateProcessor = new TemplateProcessor();
     private int status = 200;
     private Object body;
     private final String charset = "UTF-8";
     private final boolean isTemplate = false;
     private String csrfToken;
+    private boolean gzip;
+    private boolean weakETag;
+    private String ifNoneMatch;
+    private String ifModifiedSince;
+    private boolean headRequest;
+    private boolean closeDelimited;
+
+    /**
+     * Procesador de plantillas compartido. Se crea una sola vez, al renderizar la primera plantilla,
+     * para no leer {@code alba.properties} del classpath en cada respuesta.
+     */
+    private static final class TemplateProcessorHolder {
+        private static final TemplateProcessor INSTANCE = new TemplateProcessor();
+    }
 
     public Response() {
         headers.put("Content-Type", "application/json; charset=" + charset);
@@ -82,6 +116,152 @@ public class Response implements Serializable {
         headers.put("Content-Type", contentType);
     }
 
+    /**
+     * Constructor para cuerpos de longitud desconocida, que se envían con {@code Transfer-Encoding: chunked}
+     * a medida que se leen de {@code body}. El flujo se cierra al terminar de enviarlo.
+     *
+     */
+    public Response(int status, InputStream body, String contentType) {
+        this.status = status;
+        this.body = body;
+        headers.put("Content-Type", contentType);
+    }
+
+    /**
+     * Constructor para un fragmento de archivo, que se envía sin copiarlo al heap. Ver {@link FileRegion}.
+     *
+     */
+    public Response(int status, FileRegion body, String contentType) {
+        this.status = status;
+        this.body = body;
+        headers.put("Content-Type", contentType);
+    }
+
+    /**
+     * Respuesta 200 con el contenido de un archivo, enviado con {@code sendfile} cuando el canal lo permite.
+     *
+     */
+    public static Response file(Path path, String contentType) throws IOException {
+        return new Response(200, FileRegion.of(path), contentType);
+    }
+
+    private Response(int status, ResponseBodyWriter body, String contentType) {
+        this.status = status;
+        this.body = body;
+        headers.put("Content-Type", contentType);
+    }
+
+    private Response(int status, JsonBody body) {
+        this.status = status;
+        this.body = body;
+        headers.put("Content-Type", "application/json; charset=" + charset);
+    }
+
+    /**
+     * Respuesta JSON con {@code value} serializado por Jackson. La serialización ocurre al enviar la respuesta,
+     * directamente en un buffer del pool y con un {@link ObjectWriter} ya resuelto para la clase del valor,
+     * sin pasar por un {@link String}. Si Jackson no puede serializar el valor se responde con un 500.
+     *
+     */
+    public static Response json(Object value) {
+        return json(200, value);
+    }
+
+    public static Response json(int status, Object value) {
+        return new Response(status, new JsonBody(value));
+    }
+
+    /**
+     * Valor pendiente de serializar con {@link #json(int, Object)}.
+     */
+    private record JsonBody(Object value) implements Serializable {
+    }
+
+    /**
+     * Respuesta cuyo cuerpo genera {@code writer} mientras se envía, con {@code Transfer-Encoding: chunked}.
+     * El cuerpo no se guarda en memoria: lo escrito sale hacia el socket a medida que se llenan los chunks
+     * o cuando el callback llama a {@code flush()}. La conexión puede reutilizarse después (keep-alive).
+     *
+     */
+    public static Response stream(int status, String contentType, ResponseBodyWriter writer) {
+        return new Response(status, writer, contentType);
+    }
+
+    /**
+     * Igual que {@link #stream(int, String, ResponseBodyWriter)}, escribiendo texto en UTF-8 con un {@link Writer}.
+     *
+     */
+    public static Response streamText(int status, String contentType, ResponseBodyWriter.Text writer) {
+        return new Response(status, out -> {
+            Writer text = new FilterWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush(); // Como el flujo binario: cerrarlo solo envía lo pendiente
+                }
+            };
+            writer.writeTo(text);
+            text.flush();
+        }, contentType);
+    }
+
+    /**
+     * Respuesta {@code application/x-ndjson}: cada elemento se serializa con el {@link Json#mapper()} compartido,
+     * seguido de un salto de línea, a medida que se envía. El flujo se recorre una sola vez y se cierra al terminar,
+     * de modo que puede venir de un cursor de base de datos.
+     *
+     */
+    public static <T> Response ndjson(Stream<T> items) {
+        return stream(200, "application/x-ndjson", out -> {
+            try (items) {
+                writeSequence(out, items.iterator(), false);
+            }
+        });
+    }
+
+    public static <T> Response ndjson(Iterator<T> items) {
+        return stream(200, "application/x-ndjson", out -> writeSequence(out, items, false));
+    }
+
+    /**
+     * Respuesta JSON con un arreglo que se escribe elemento a elemento, sin reunir los elementos en memoria.
+     * El flujo se cierra al terminar.
+     *
+     */
+    public static <T> Response jsonArray(Stream<T> items) {
+        return stream(200, "application/json; charset=UTF-8", out -> {
+            try (items) {
+                writeSequence(out, items.iterator(), true);
+            }
+        });
+    }
+
+    public static <T> Response jsonArray(Iterator<T> items) {
+        return stream(200, "application/json; charset=UTF-8", out -> writeSequence(out, items, true));
+    }
+
+    /**
+     * Serializa los elementos con un único generador. Jackson acumula la salida en su buffer y la pasa
+     * al flujo de la respuesta cuando se llena, así que los elementos salen agrupados en chunks.
+     */
+    private static void writeSequence(OutputStream out, Iterator<?> items, boolean array) throws IOException {
+        ObjectWriter writer = Json.sequenceWriter();
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.setRootValueSeparator(null); // NDJSON separa con saltos de línea, no con espacios
+            if (array) {
+                generator.writeStartArray();
+            }
+            while (items.hasNext()) {
+                writer.writeValue(generator, items.next());
+                if (!array) {
+                    generator.writeRaw('\n');
+                }
+            }
+            if (array) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
     public static Response Ok(JSONObject body) {
         return new Response(200, body);
     }
@@ -284,6 +464,7 @@ public class Response implements Serializable {
      * <p>
      * Este método permite asignar un objeto como cuerpo de la respuesta,
      * que puede ser una cadena de texto, un objeto JSON, o cualquier otro tipo de contenido.
+     * Un {@link InputStream} se envía con {@code Transfer-Encoding: chunked}.
      * </p>
      *
      */
@@ -317,47 +498,585 @@ public class Response implements Serializable {
     }
 
     /**
-     * Metodo que construye la respuesta HTTP
+     * Metodo que construye la respuesta HTTP como texto.
+     * Útil para depuración; para enviar la respuesta se usa {@link #writeTo(WritableByteChannel)}
+     * o {@link #writeTo(OutputStream)}, que no copian el cuerpo a un {@link String}.
+     * De los cuerpos de longitud desconocida y de los archivos solo se incluye la cabecera.
      *
-
      */
     public String build() {
-        StringBuilder responseBuilder = new StringBuilder();
+        skipBodyIfNotModified();
+        if (hasNoBody() || isChunked() || isFile()) {
+            ByteBuffer head = hasNoBody() ? encodeHeadWithoutBody() : encodeHead(isFile() ? fileLength() : -1);
+            try {
+                return new String(head.array(), 0, head.limit(), StandardCharsets.UTF_8);
+            } finally {
+                ByteBufferPool.release(head);
+            }
+        }
+        ByteBuffer content = prepareBody();
+        ByteBuffer head = encodeHead(content.remaining());
+        try {
+            return new String(head.array(), 0, head.limit(), StandardCharsets.UTF_8)
+                    + new String(content.array(), content.arrayOffset() + content.position(), content.remaining(),
+                    body instanceof byte[] ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        } finally {
+            ByteBufferPool.release(head);
+            releaseBody(content);
+        }
+    }
 
-        // Línea de estado
-        String statusMessage = switch (status) {
-            case 200 -> "OK";
-            case 404 -> "Not Found";
-            case 500 -> "Internal Server Error";
-            default -> "Unknown Status";
-        };
-        responseBuilder.append("HTTP/1.1 ").append(status).append(" ").append(statusMessage).append("\r\n");
+    /**
+     * Escribe la respuesta en un canal con semántica bloqueante.
+     * La cabecera se codifica en un buffer del pool y, si el canal lo permite, cabecera y cuerpo
+     * se envían en una sola escritura agrupada. Los cuerpos {@code byte[]} se escriben sin copiarse
+     * y los archivos pasan del disco al canal con {@link FileRegion#transferTo(WritableByteChannel)}.
+     *
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        skipBodyIfNotModified();
+        if (isChunked() && !hasNoBody()) {
+            writeTo(Channels.newOutputStream(channel));
+            return;
+        }
+        if (hasNoBody() || isFile()) {
+            ByteBuffer head = hasNoBody() ? encodeHeadWithoutBody() : encodeHead(fileLength());
+            try {
+                while (head.hasRemaining()) {
+                    channel.write(head);
+                }
+            } finally {
+                ByteBufferPool.release(head);
+            }
+            if (hasNoBody()) {
+                return;
+            }
+            if (body instanceof FileRegion file) {
+                file.transferTo(channel);
+            } else {
+                ((MultipartByteRanges) body).transferTo(channel);
+            }
+            return;
+        }
+        ByteBuffer content = prepareBody();
+        ByteBuffer head = encodeHead(content.remaining());
+        try {
+            if (channel instanceof GatheringByteChannel gathering) {
+                ByteBuffer[] buffers = {head, content};
+                while (content.hasRemaining() || head.hasRemaining()) {
+                    gathering.write(buffers);
+                }
+            } else {
+                while (head.hasRemaining()) {
+                    channel.write(head);
+                }
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+        } finally {
+            ByteBufferPool.release(head);
+            releaseBody(content);
+        }
+    }
 
-        // Agregar encabezados
-        for (Map.Entry<String, String> entry : headers.entrySet()) {
-            responseBuilder.append(entry.getKey()).append(": ").append(entry.getValue()).append("\r\n");
+    /**
+     * Escribe la respuesta en un flujo de salida. Si el cuerpo cabe junto a la cabecera se envía
+     * en una sola escritura; si no, el cuerpo se escribe a continuación sin copiarse.
+     *
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        skipBodyIfNotModified();
+        if (hasNoBody()) {
+            ByteBuffer head = encodeHeadWithoutBody();
+            try {
+                out.write(head.array(), 0, head.limit());
+                out.flush();
+            } finally {
+                ByteBufferPool.release(head);
+            }
+            return;
+        }
+        if (isChunked()) {
+            writeChunked(out);
+            return;
+        }
+        if (isFile()) {
+            writeTo(Channels.newChannel(out)); // Sin canal de socket no hay sendfile: el archivo se copia por bloques
+            out.flush();
+            return;
+        }
+        ByteBuffer content = prepareBody();
+        ByteBuffer head = encodeHead(content.remaining());
+        try {
+            if (content.remaining() <= head.capacity() - head.limit()) {
+                int headLength = head.limit();
+                head.limit(headLength + content.remaining()).position(headLength);
+                head.put(content);
+                out.write(head.array(), 0, head.limit());
+            } else {
+                out.write(head.array(), 0, head.limit());
+                out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+            }
+            out.flush();
+        } finally {
+            ByteBufferPool.release(head);
+            releaseBody(content);
         }
+    }
+
+    /**
+     * Indica si el cuerpo tiene longitud desconocida y se envía con {@code Transfer-Encoding: chunked}.
+     */
+    public boolean isChunked() {
+        return body instanceof InputStream || body instanceof ResponseBodyWriter;
+    }
+
+    /**
+     * Calcula al enviar la respuesta un ETag débil ({@code W/"..."}) sobre los bytes del cuerpo, salvo que ya
+     * tenga uno. Solo se aplica a respuestas 200 de longitud conocida. Ver {@link #setValidators(String, String)}.
+     *
+     */
+    public Response weakETag() {
+        this.weakETag = true;
+        return this;
+    }
+
+    /**
+     * Validadores de la solicitud ({@code If-None-Match} e {@code If-Modified-Since}). Si al enviar una respuesta 200
+     * (o 206) coinciden con su {@code ETag} o su {@code Last-Modified}, se envía un 304 sin cuerpo: el cliente ya lo tiene.
+     * {@code If-Modified-Since} solo se tiene en cuenta si no hay {@code If-None-Match}.
+     *
+     */
+    public void setValidators(String ifNoneMatch, String ifModifiedSince) {
+        this.ifNoneMatch = ifNoneMatch;
+        this.ifModifiedSince = ifModifiedSince;
+    }
+
+    /**
+     * Método de la solicitud que se responde. A {@code HEAD} se le envían las mismas cabeceras que a {@code GET},
+     * incluido {@code Content-Length}, pero sin el cuerpo.
+     *
+     */
+    public void setRequestMethod(String method) {
+        this.headRequest = "HEAD".equals(method);
+    }
 
-        // Agregar cookies
-        for (Map.Entry<String, String> entry : cookies.entrySet()) {
-            responseBuilder.append("Set-Cookie: ").append(entry.getValue()).append("\r\n");
+    /**
+     * Indica si el cuerpo es un {@link FileRegion} o un {@link MultipartByteRanges}, que conviene escribir con
+     * {@link #writeTo(WritableByteChannel)} sobre el canal del socket para que el archivo no pase por el heap.
+     */
+    public boolean isFile() {
+        return body instanceof FileRegion || body instanceof MultipartByteRanges;
+    }
+
+    private long fileLength() {
+        return body instanceof FileRegion file ? file.count() : ((MultipartByteRanges) body).length();
+    }
+
+    /**
+     * Indica si merece la pena comprimir un cuerpo de este tipo: texto, JSON, XML y JavaScript.
+     */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
         }
+        contentType = contentType.toLowerCase(Locale.ROOT);
+        return contentType.startsWith("text/") || contentType.contains("json")
+                || contentType.contains("xml") || contentType.contains("javascript");
+    }
 
-        // Separador entre encabezados y cuerpo
-        responseBuilder.append("\r\n");
+    /**
+     * Comprime con gzip un cuerpo de longitud desconocida al enviarlo, añadiendo {@code Content-Encoding: gzip}.
+     * Cada {@code flush()} del origen envía lo ya comprimido, así que el cliente sigue recibiendo el cuerpo
+     * de forma progresiva. No tiene efecto en cuerpos de longitud conocida.
+     */
+    public void gzip() {
+        if (isChunked()) {
+            gzip = true;
+            headers.put("Content-Encoding", "gzip");
+            headers.put("Vary", "Accept-Encoding");
+        }
+    }
 
-        // Agregar cuerpo
-        if (body instanceof JSONObject) {
-            responseBuilder.append(body);
-        } else if (body instanceof String) {
-            responseBuilder.append(body);
-        } else if (body instanceof byte[]) {
-            return Arrays.toString(responseBuilder.toString().getBytes(StandardCharsets.ISO_8859_1)); // Para contenido binario
+    /**
+     * Envía un cuerpo de longitud desconocida sin {@code Content-Length} ni {@code chunked}: el cliente sabe que
+     * terminó cuando se cierra la conexión, así que no se lee entero a memoria. Necesario con clientes HTTP/1.0,
+     * que no admiten {@code chunked}. No tiene efecto en cuerpos de longitud conocida.
+     */
+    public void closeDelimited() {
+        if (isChunked()) {
+            closeDelimited = true;
+            gzip = false;
+            headers.remove("Content-Encoding");
         }
+    }
+
+    /**
+     * Indica si el final del cuerpo se marca cerrando la conexión, que no puede reutilizarse tras enviarla.
+     */
+    public boolean isCloseDelimited() {
+        return closeDelimited;
+    }
 
-        return responseBuilder.toString();
+    /**
+     * Envía la cabecera y después el cuerpo en chunks, comprimido si se pidió con {@link #gzip()}.
+     * El último chunk solo se envía si el cuerpo se generó sin errores; si no, el cliente no lo recibe
+     * y la conexión se cierra. Con {@link #closeDelimited()} el cuerpo se escribe tal cual.
+     */
+    private void writeChunked(OutputStream out) throws IOException {
+        ByteBuffer head = encodeHead(-1);
+        try {
+            out.write(head.array(), 0, head.limit());
+        } finally {
+            ByteBufferPool.release(head);
+        }
+        if (closeDelimited) {
+            writeBody(out);
+            out.flush();
+            return;
+        }
+        OutputStream target = new ChunkedOutputStream(out);
+        if (gzip) {
+            target = new GZIPOutputStream(target, ByteBufferPool.BUFFER_SIZE, true); // flush() envía lo ya comprimido
+        }
+        writeBody(target);
+        target.close(); // Termina gzip y envía el último chunk; no cierra la conexión
     }
 
+    /**
+     * Vuelca un cuerpo de longitud desconocida en {@code out}, sin cerrarlo.
+     * Cuando un {@link InputStream} no tiene más datos disponibles de inmediato, lo acumulado se envía
+     * en lugar de esperar a llenar un chunk.
+     */
+    private void writeBody(OutputStream out) throws IOException {
+        try {
+            if (body instanceof ResponseBodyWriter writer) {
+                writer.writeTo(new UnclosableOutputStream(out));
+                return;
+            }
+            try (InputStream source = (InputStream) body) {
+                byte[] chunk = new byte[ByteBufferPool.BUFFER_SIZE];
+                int read;
+                while ((read = source.read(chunk)) != -1) {
+                    out.write(chunk, 0, read);
+                    if (source.available() == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Error al generar el cuerpo de la respuesta", e);
+        }
+    }
+
+    /**
+     * Flujo que se entrega al {@link ResponseBodyWriter}: cerrarlo solo envía lo pendiente,
+     * porque el final del cuerpo lo marca la propia respuesta.
+     */
+    private static final class UnclosableOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        UnclosableOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Los cuerpos de longitud desconocida y los archivos solo pueden validarse con un {@code ETag} o un
+     * {@code Last-Modified} ya puestos; si el cliente los tiene, no se abren ni se leen.
+     */
+    private void skipBodyIfNotModified() {
+        if ((isChunked() || isFile()) && isNotModified()) {
+            closeStream();
+            notModified();
+        }
+    }
+
+    private void closeStream() {
+        if (body instanceof InputStream in) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // El cuerpo no se va a enviar
+            }
+        }
+    }
+
+    /**
+     * Indica si la respuesta se envía sin cuerpo: la de una solicitud {@code HEAD} y las de estado 1xx, 204 y 304.
+     */
+    private boolean hasNoBody() {
+        return headRequest || isBodylessStatus();
+    }
+
+    private boolean isBodylessStatus() {
+        return status < 200 || status == 204 || status == 304;
+    }
+
+    /**
+     * Cabecera de una respuesta sin cuerpo. Los cuerpos de longitud desconocida se cierran sin leerlos;
+     * a {@code HEAD} se le calcula la longitud que tendría el cuerpo, con su ETag débil si se pidió.
+     */
+    private ByteBuffer encodeHeadWithoutBody() {
+        long contentLength = -1;
+        if (isChunked()) {
+            closeStream();
+        } else if (isFile()) {
+            contentLength = fileLength();
+        } else if (!isBodylessStatus()) {
+            ByteBuffer content = prepareBody();
+            contentLength = content.remaining();
+            releaseBody(content);
+        }
+        return encodeHead(contentLength);
+    }
+
+    /**
+     * Cuerpo de longitud conocida listo para enviar, con el ETag débil si se pidió. Si el cliente ya tiene
+     * el cuerpo, la respuesta pasa a ser un 304 vacío.
+     */
+    private ByteBuffer prepareBody() {
+        ByteBuffer content = bodyBuffer();
+        if (weakETag && status == 200 && !headers.containsKey("ETag")) {
+            headers.put("ETag", weakETag(content));
+        }
+        if (isNotModified()) {
+            releaseBody(content);
+            notModified();
+            return ByteBuffer.wrap(EMPTY_BODY);
+        }
+        return content;
+    }
+
+    /**
+     * Los validadores también se aplican a un 206: se evalúan antes que {@code Range}.
+     */
+    private boolean isNotModified() {
+        if (status != 200 && status != 206) {
+            return false;
+        }
+        if (ifNoneMatch != null) {
+            String etag = headers.get("ETag");
+            return etag != null && matchesETag(ifNoneMatch, etag);
+        }
+        if (ifModifiedSince != null) {
+            long since = DateHeader.parse(ifModifiedSince);
+            long lastModified = DateHeader.parse(headers.get("Last-Modified"));
+            return since >= 0 && lastModified >= 0 && lastModified <= since;
+        }
+        return false;
+    }
+
+    /**
+     * Convierte la respuesta en un 304: sin cuerpo ni metadatos del cuerpo, conservando {@code ETag},
+     * {@code Last-Modified} y el resto de cabeceras.
+     */
+    private void notModified() {
+        status = 304;
+        body = null;
+        gzip = false;
+        headers.remove("Content-Type");
+        headers.remove("Content-Encoding");
+    }
+
+    /**
+     * Comparación débil de {@code If-None-Match}: {@code W/"x"} y {@code "x"} se consideran iguales.
+     */
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if ((candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag débil con los primeros 128 bits del SHA-256 del cuerpo.
+     */
+    private static String weakETag(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e); // Todas las JVM lo incluyen
+        }
+    }
+
+    /**
+     * Cuerpo listo para enviar. Los valores de {@link #json(int, Object)} se serializan en un buffer del pool,
+     * que se devuelve con {@link #releaseBody(ByteBuffer)}. Si la serialización falla todavía no se ha enviado
+     * nada, así que la respuesta pasa a ser un error 500.
+     */
+    private ByteBuffer bodyBuffer() {
+        if (body instanceof JsonBody json) {
+            Object value = json.value();
+            PooledOutputStream out = new PooledOutputStream();
+            try {
+                Json.writerFor(value == null ? null : value.getClass()).writeValue(out, value);
+                return out.contents();
+            } catch (IOException e) {
+                ByteBufferPool.release(out.contents());
+                status = 500;
+                body = new JSONObject().put("error", "Error al serializar la respuesta");
+            }
+        }
+        return ByteBuffer.wrap(bodyBytes());
+    }
+
+    private void releaseBody(ByteBuffer content) {
+        if (body instanceof JsonBody) {
+            ByteBufferPool.release(content);
+        }
+    }
+
+    /**
+     * Cuerpo codificado en bytes: los {@code byte[]} tal cual y el texto en UTF-8.
+     */
+    private byte[] bodyBytes() {
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof JSONObject || body instanceof String) {
+            return body.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return EMPTY_BODY;
+    }
+
+    /**
+     * Codifica la línea de estado, las cabeceras, las cookies y {@code Content-Length} (en bytes)
+     * en un buffer listo para leer. Si la cabecera no cabe en un buffer del pool se usa uno mayor.
+     *
+     * @param contentLength longitud del cuerpo, o -1 para enviarlo con {@code Transfer-Encoding: chunked}
+     *                      (en la respuesta a {@code HEAD} o con {@link #closeDelimited()}, ninguna de las dos cabeceras)
+     */
+    private ByteBuffer encodeHead(long contentLength) {
+        ByteBuffer buffer = ByteBufferPool.acquire();
+        while (true) {
+            try {
+                byte[] statusLine = HttpConstants.statusLine(status);
+                if (statusLine != null) {
+                    buffer.put(statusLine);
+                } else {
+                    putAscii(buffer, "HTTP/1.1 ");
+                    putInt(buffer, status);
+                    buffer.put((byte) ' ');
+                    putAscii(buffer, HttpConstants.reasonPhrase(status));
+                    buffer.put(HttpConstants.CRLF);
+                }
+
+                // Agregar encabezados
+                boolean hasDate = false;
+                for (Map.Entry<String, String> entry : headers.entrySet()) {
+                    String name = entry.getKey();
+                    if (name.equalsIgnoreCase("Date")) {
+                        hasDate = true;
+                    } else if (name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Transfer-Encoding")) {
+                        continue;
+                    }
+                    putHeader(buffer, name, entry.getValue());
+                }
+
+                // Fecha precalculada por el reloj compartido, salvo que el manejador haya puesto la suya
+                byte[] date = DateHeader.current();
+                if (date != null && !hasDate) {
+                    buffer.put(date);
+                }
+
+                // Agregar cookies
+                for (Map.Entry<String, String> entry : cookies.entrySet()) {
+                    buffer.put(HttpConstants.SET_COOKIE);
+                    putAscii(buffer, entry.getValue());
+                    buffer.put(HttpConstants.CRLF);
+                }
+
+                // Longitud en bytes del cuerpo, necesaria para reutilizar la conexión (keep-alive).
+                // Los 1xx, 204 y 304 no tienen cuerpo ni longitud propia
+                if (!isBodylessStatus()) {
+                    if (contentLength >= 0) {
+                        buffer.put(HttpConstants.CONTENT_LENGTH);
+                        putInt(buffer, contentLength);
+                        buffer.put(HttpConstants.CRLF);
+                    } else if (!headRequest && !closeDelimited) {
+                        buffer.put(HttpConstants.TRANSFER_ENCODING_CHUNKED);
+                    }
+                }
+
+                // Separador entre encabezados y cuerpo
+                buffer.put(HttpConstants.CRLF);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                ByteBufferPool.release(buffer);
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Escribe una cabecera; los nombres habituales se copian ya codificados desde {@link HttpConstants}.
+     */
+    private static void putHeader(ByteBuffer buffer, String name, String value) {
+        byte[] encodedName = HttpConstants.headerName(name);
+        if (encodedName != null) {
+            buffer.put(encodedName);
+        } else {
+            putAscii(buffer, name);
+            buffer.put(HttpConstants.HEADER_SEPARATOR);
+        }
+        putAscii(buffer, value);
+        buffer.put(HttpConstants.CRLF);
+    }
+
+    /**
+     * Copia el texto al buffer byte a byte. Si contiene caracteres no ASCII se codifica en UTF-8.
+     */
+    private static void putAscii(ByteBuffer buffer, String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                buffer.put(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Escribe un entero no negativo en decimal sin crear cadenas intermedias.
+     */
+    private static void putInt(ByteBuffer buffer, long value) {
+        if (value >= 10) {
+            putInt(buffer, value / 10);
+        }
+        buffer.put((byte) ('0' + value % 10));
+    }
 
     /**
      * Agrega una cookie al response
@@ -409,7 +1128,7 @@ public class Response implements Serializable {
      */
     public Response addTemplate(String template) {
         addHeader("Content-Type", "text/html; charset=" + charset);
-        this.body = templateProcessor.render(template);
+        this.body = TemplateProcessorHolder.INSTANCE.render(template);
         return this;
     }
 
@@ -424,7 +1143,7 @@ public class Response implements Serializable {
      */
     public Response addTemplate(String template, String key, Object value) {
         addHeader("Content-Type", "text/html; charset=" + charset);
-        this.body = templateProcessor.render(template, key, value);
+        this.body = TemplateProcessorHolder.INSTANCE.render(template, key, value);
         return this;
     }
 
@@ -439,7 +1158,7 @@ public class Response implements Serializable {
      */
     public Response addTemplate(String template, Map<String, Object> model) {
         addHeader("Content-Type", "text/html; charset=" + charset);
-        this.body = templateProcessor.render(template, model);
+        this.body = TemplateProcessorHolder.INSTANCE.render(template, model);
         return this;
     }
 
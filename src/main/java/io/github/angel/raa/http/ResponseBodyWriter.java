@@ -0,0 +1,34 @@
+package io.github.angel.raa.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Genera el cuerpo de una respuesta mientras se envía al cliente. Ver {@link Response#stream(int, String, ResponseBodyWriter)}.
+ *
+ * <p>Lo escrito se envía en chunks a medida que se acumula; {@code flush()} envía de inmediato lo pendiente.
+ * No hace falta cerrar el flujo: la respuesta termina cuando el método retorna. Si lanza una excepción,
+ * la conexión se cierra sin enviar el último chunk, de modo que el cliente detecta la respuesta incompleta.</p>
+ *
+ * <pre>{@code
+ * server.get("/export", request -> Response.stream(200, "text/csv", out -> {
+ *     for (Row row : rows) {
+ *         out.write(row.toCsv().getBytes(StandardCharsets.UTF_8));
+ *     }
+ * }));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ResponseBodyWriter {
+
+    void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Variante que escribe texto en UTF-8. Ver {@link Response#streamText(int, String, Text)}.
+     */
+    @FunctionalInterface
+    interface Text {
+        void writeTo(Writer out) throws IOException;
+    }
+}
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -50,8 +51,8 @@ public class BasicAuthMiddleware implements Middleware {
     private final List<String> excludedPaths = new ArrayList<>(List.of("/public"));
     private final Map<String, String> roles = new HashMap<>();
     private final List<String> excludedPathPatterns = new ArrayList<>(List.of("/public"));
-    private final Map<String, Integer> failedAttempts = new HashMap<>();
-    private final Map<String, Long> lockoutTimes = new HashMap<>();
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Map<String, Long> lockoutTimes = new ConcurrentHashMap<>();
     private String realm = "Acceso restringido";
 
 
@@ -107,8 +108,8 @@ public class BasicAuthMiddleware implements Middleware {
         String password = parts[1];
 
         // Verificar bloqueo temporal
-        if (lockoutTimes.containsKey(username)) {
-            long lockoutTime = lockoutTimes.get(username);
+        Long lockoutTime = lockoutTimes.get(username);
+        if (lockoutTime != null) {
             if (System.currentTimeMillis() - lockoutTime < LOCKOUT_DURATION) {
                 long remainingTime = LOCKOUT_DURATION - (System.currentTimeMillis() - lockoutTime);
                 response.setStatus(429); // Too Many Requests
@@ -124,8 +125,8 @@ public class BasicAuthMiddleware implements Middleware {
 
         // Verificar credenciales
         if (!validCredentials.containsKey(username) || !verifyPassword(username, password)) {
-            failedAttempts.put(username, failedAttempts.getOrDefault(username, 0) + 1);
-            if (failedAttempts.get(username) >= MAX_FAILED_ATTEMPTS) {
+            int attempts = failedAttempts.merge(username, 1, Integer::sum);
+            if (attempts >= MAX_FAILED_ATTEMPTS) {
                 lockoutTimes.put(username, System.currentTimeMillis());
                 response.setStatus(429); // Too Many Requests
                 response.setBody(new JSONObject()
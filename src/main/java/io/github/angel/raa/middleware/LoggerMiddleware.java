@@ -38,8 +38,12 @@ public class LoggerMiddleware implements Middleware {
         logger.log(System.Logger.Level.DEBUG, "Parámetros: {0}", request.getParams());
 
         // Si hay un cuerpo en la solicitud, registrarlo
-        if (request.getBody() != null) {
-            logger.log(System.Logger.Level.DEBUG, "Cuerpo: {0}", request.getBody().toString());
+        if (!request.isBodyEmpty() && logger.isLoggable(System.Logger.Level.DEBUG)) {
+            if (request.isBodyStreamed()) {
+                logger.log(System.Logger.Level.DEBUG, "Cuerpo: (leído de la conexión por el manejador)"); // No consumirlo aquí
+            } else {
+                logger.log(System.Logger.Level.DEBUG, "Cuerpo: {0}", request.getBodyText()); // Sin analizarlo como JSON
+            }
         }
     }
 }
@@ -5,19 +5,55 @@ import io.github.angel.raa.http.Response;
 
 import java.util.Iterator;
 
+/**
+ * Cadena de middlewares que se pasa a {@link Middleware#handle} para continuar con el siguiente.
+ *
+ * <p>Las cadenas creadas con {@link #of(Middleware...)} son inmutables: cada eslabón conoce su middleware
+ * y el eslabón siguiente, de modo que se construyen una sola vez al registrar la ruta y se recorren en cada
+ * solicitud sin reservar memoria. Pueden usarse desde varios hilos a la vez.</p>
+ */
 public class MiddlewareChain {
+    private static final MiddlewareChain END = new MiddlewareChain(null, null);
+
     private final Iterator<Middleware> iterator;
+    private final Middleware middleware;
+    private final MiddlewareChain rest;
 
+    /**
+     * Cadena de un solo uso que recorre el iterador.
+     */
     public MiddlewareChain(Iterator<Middleware> iterator) {
         this.iterator = iterator;
+        this.middleware = null;
+        this.rest = null;
+    }
+
+    private MiddlewareChain(Middleware middleware, MiddlewareChain rest) {
+        this.iterator = null;
+        this.middleware = middleware;
+        this.rest = rest;
+    }
+
+    /**
+     * Compila los middlewares, en orden, en una cadena inmutable y reutilizable.
+     */
+    public static MiddlewareChain of(Middleware... middlewares) {
+        MiddlewareChain chain = END;
+        for (int i = middlewares.length - 1; i >= 0; i--) {
+            chain = new MiddlewareChain(middlewares[i], chain);
+        }
+        return chain;
     }
 
     public boolean next(Request request, Response response) {
-        if (iterator.hasNext()) {
-            Middleware middleware = iterator.next();
-            return middleware.handle(request, response, this);
+        if (iterator != null) {
+            if (iterator.hasNext()) {
+                Middleware middleware = iterator.next();
+                return middleware.handle(request, response, this);
+            }
+            return true;
         }
-        return true;
+        return middleware == null || middleware.handle(request, response, rest);
     }
 
 }
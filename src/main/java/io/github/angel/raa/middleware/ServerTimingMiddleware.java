@@ -3,8 +3,8 @@ package io.github.angel.raa.middleware;
 import io.github.angel.raa.http.Request;
 import io.github.angel.raa.http.Response;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -29,8 +29,8 @@ import java.util.stream.Collectors;
  */
 public class ServerTimingMiddleware implements Middleware {
     private static final Logger LOGGER = Logger.getLogger(ServerTimingMiddleware.class.getName());
-    private final Map<String, Long> timings = new HashMap<>();
-    private final Map<String, String> descriptions = new HashMap<>();
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+    private final Map<String, String> descriptions = new ConcurrentHashMap<>();
 
     @Override
     public boolean handle(Request request, Response response, MiddlewareChain chain) {
@@ -17,9 +17,6 @@ public class SessionMiddleware implements Middleware {
         // Asigna sessionId a la request
         request.setAttribute("sessionId", session.getSessionId());
 
-        chain.next(request, response);
-
-
         return chain.next(request, response);
     }
 }
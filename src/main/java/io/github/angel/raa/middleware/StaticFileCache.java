@@ -0,0 +1,249 @@
+package io.github.angel.raa.middleware;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Caché en memoria de los archivos estáticos pequeños de {@link StaticFileMiddleware}.
+ *
+ * <p>Guarda el contenido de cada archivo, su variante gzip, su {@code Content-Type} y sus validadores
+ * ({@code ETag} y {@code Last-Modified}), con un límite total
+ * en bytes; al superarlo descarta los archivos usados hace más tiempo (LRU aproximado). Un {@link WatchService} sobre
+ * el directorio raíz invalida las entradas de los archivos que cambian o se borran, así que un acierto
+ * no toca el disco. Si el directorio no se puede vigilar la caché queda desactivada.</p>
+ *
+ * <p>Un acierto no toma ningún lock: lee un {@link ConcurrentHashMap} y anota el instante del acceso en la propia
+ * entrada. El lock solo se toma al guardar, descartar e invalidar entradas.</p>
+ */
+final class StaticFileCache implements Closeable {
+    private static final System.Logger logger = System.getLogger(StaticFileCache.class.getName());
+
+    /**
+     * Archivo cacheado. {@code gzipped} es null si el tipo no se comprime o si comprimido no ocupa menos.
+     */
+    record Entry(byte[] content, byte[] gzipped, String contentType, String etag, String lastModified) {
+        long size() {
+            return content.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+
+    /**
+     * Entrada guardada con el instante de su último acceso, que se actualiza sin lock.
+     */
+    private static final class Node {
+        final Entry entry;
+        volatile long lastAccess = System.nanoTime();
+
+        Node(Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private final long maxBytes;
+    private final ConcurrentHashMap<Path, Node> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock(); // Solo para modificar las entradas
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final WatchService watcher;
+    private long bytes; // Protegido por lock
+    private volatile long generation; // Aumenta con cada invalidación; se modifica con el lock
+
+    StaticFileCache(Path root, long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.watcher = startWatching(root);
+    }
+
+    private WatchService startWatching(Path root) {
+        try {
+            WatchService service = root.getFileSystem().newWatchService();
+            try {
+                register(service, root);
+            } catch (IOException e) {
+                service.close();
+                throw e;
+            }
+            Thread thread = new Thread(() -> watch(service), "alba-static-watch");
+            thread.setDaemon(true);
+            thread.start();
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.log(System.Logger.Level.WARNING, "No se puede vigilar " + root + "; caché de archivos estáticos desactivada", e);
+            return null;
+        }
+    }
+
+    boolean isEnabled() {
+        return watcher != null;
+    }
+
+    /**
+     * Entrada del archivo, o null si no está en caché.
+     */
+    Entry get(Path file) {
+        Node node = entries.get(file);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        node.lastAccess = System.nanoTime();
+        return node.entry;
+    }
+
+    /**
+     * Versión de la caché, que se toma antes de leer un archivo y se pasa a {@link #put(Path, Entry, long)}.
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Guarda la entrada salvo que algo haya cambiado en el directorio desde {@code readGeneration}:
+     * el contenido leído podría ser ya antiguo.
+     */
+    void put(Path file, Entry entry, long readGeneration) {
+        lock.lock();
+        try {
+            if (watcher == null || readGeneration != generation || entry.size() > maxBytes) {
+                return;
+            }
+            Node previous = entries.put(file, new Node(entry));
+            bytes += entry.size() - (previous == null ? 0 : previous.entry.size());
+            if (bytes > maxBytes) {
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta las entradas con el acceso más antiguo hasta volver al límite. Se ejecuta con el lock,
+     * solo cuando se guarda una entrada nueva.
+     */
+    private void evict() {
+        // Los instantes se copian antes de ordenar: los aciertos siguen actualizándolos sin lock
+        List<Access> eldest = new ArrayList<>(entries.size());
+        entries.forEach((path, node) -> eldest.add(new Access(path, node, node.lastAccess)));
+        eldest.sort(Comparator.comparingLong(Access::time));
+        for (int i = 0; bytes > maxBytes; i++) {
+            Access access = eldest.get(i);
+            if (entries.remove(access.path(), access.node())) {
+                bytes -= access.node().entry.size();
+            }
+        }
+    }
+
+    private record Access(Path path, Node node, long time) {
+    }
+
+    /**
+     * Elimina el archivo o, si es un directorio, todo lo que contiene.
+     */
+    void invalidate(Path changed) {
+        lock.lock();
+        try {
+            generation++;
+            entries.entrySet().removeIf(entry -> {
+                if (entry.getKey().startsWith(changed)) {
+                    bytes -= entry.getValue().entry.size();
+                    return true;
+                }
+                return false;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getSize() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close(); // Termina el hilo de vigilancia
+        }
+        clear();
+    }
+
+    /**
+     * Vigila el directorio y sus subdirectorios; {@link WatchService} no es recursivo.
+     */
+    private static void register(WatchService service, Path directory) throws IOException {
+        try (Stream<Path> tree = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) tree.filter(Files::isDirectory)::iterator) {
+                path.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        clear(); // Se perdieron eventos: no se sabe qué cambió
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                            && Files.isDirectory(changed, LinkOption.NOFOLLOW_LINKS)) {
+                        try {
+                            register(service, changed);
+                        } catch (IOException e) {
+                            logger.log(System.Logger.Level.WARNING, "No se puede vigilar " + changed, e);
+                        }
+                    }
+                    invalidate(changed);
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Caché cerrada
+        }
+    }
+}
@@ -1,28 +1,114 @@
 package io.github.angel.raa.middleware;
 
+import io.github.angel.raa.http.ByteRange;
+import io.github.angel.raa.http.DateHeader;
+import io.github.angel.raa.http.FileRegion;
+import io.github.angel.raa.http.MultipartByteRanges;
 import io.github.angel.raa.http.Request;
 import io.github.angel.raa.http.Response;
 import org.json.JSONObject;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Sirve archivos estáticos desde un directorio raíz ({@code public} por defecto).
+ *
+ * <p>Los archivos pequeños se guardan en una caché en memoria limitada en bytes, junto con su variante gzip,
+ * que se invalida cuando cambian en disco; un acierto no toca el sistema de archivos. Los demás no se leen
+ * a memoria: la respuesta lleva un {@link FileRegion} que el servidor envía con {@code sendfile}.
+ * El {@code Content-Type} se detecta con {@link Files#probeContentType(Path)} una vez por extensión.
+ * Cada respuesta lleva un {@code ETag} fuerte (tamaño y fecha de modificación) y {@code Last-Modified},
+ * con los que el servidor responde 304 a los clientes que ya tienen el archivo. Las solicitudes con
+ * {@code Range} reciben un 206 con solo los bytes pedidos, leídos del disco aunque el archivo esté en caché.
+ * A {@code HEAD} se le responde con las mismas cabeceras que a {@code GET}, sin cuerpo y sin leer el archivo.
+ * Las rutas que salen del directorio raíz ({@code ..}) se ignoran.</p>
+ *
+ * <pre>{@code
+ * StaticFileMiddleware assets = new StaticFileMiddleware(Path.of("web/dist"), 64 * 1024 * 1024);
+ * }</pre>
+ */
+public class StaticFileMiddleware implements Middleware, Closeable {
+    public static final long DEFAULT_CACHE_SIZE = 32 * 1024 * 1024;
+    /**
+     * Los archivos mayores se envían con {@code sendfile} en lugar de guardarse en la caché.
+     */
+    public static final long MAX_CACHED_FILE_SIZE = 512 * 1024;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final Map<String, String> CONTENT_TYPES = new ConcurrentHashMap<>();
+    private final Path root;
+    private final StaticFileCache cache;
 
-public class StaticFileMiddleware implements Middleware {
+    public StaticFileMiddleware() {
+        this("public");
+    }
+
+    public StaticFileMiddleware(String root) {
+        this(Path.of(root));
+    }
 
+    public StaticFileMiddleware(Path root) {
+        this(root, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize bytes que puede ocupar la caché en memoria; 0 la desactiva
+     */
+    public StaticFileMiddleware(Path root, long cacheSize) {
+        this.root = root.toAbsolutePath().normalize();
+        this.cache = cacheSize > 0 ? new StaticFileCache(this.root, cacheSize) : null;
+    }
 
     @Override
     public boolean handle(Request request, Response response, MiddlewareChain chain) {
-        String staticFolder = "public";
-        String filePath = staticFolder + request.getPath();
-        File file = new File(filePath);
-        if (file.exists() && !file.isDirectory()) {
+        Path file = resolve(request.getPath());
+        if (file == null) {
+            return chain.next(request, response);
+        }
+        boolean head = "HEAD".equals(request.getMethod());
+        response.setRequestMethod(request.getMethod()); // A HEAD solo se le envían los validadores y Content-Length
+        StaticFileCache.Entry cached = isCacheEnabled() ? cache.get(file) : null;
+        if (cached != null) {
+            if (!sendRanges(request, response, file, cached.content().length, cached.contentType(), cached.etag(), cached.lastModified())) {
+                send(cached, request, response);
+            }
+            return false; // No continuar, respuesta servida desde la caché
+        }
+        // La versión de la caché se toma antes de leer los atributos: si el archivo cambia mientras se lee,
+        // la entrada no se guarda con el contenido nuevo bajo el ETag antiguo
+        long generation = isCacheEnabled() ? cache.generation() : 0;
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes != null && attributes.isRegularFile()) {
             try {
-                response.addHeader("Content-Type", Files.probeContentType(Path.of(filePath)));
-                response.setBody(new JSONObject(Files.readAllBytes(Path.of(filePath))));
-                response.setStatus(200);
+                String contentType = contentType(file);
+                String etag = etag(attributes);
+                String lastModified = DateHeader.format(attributes.lastModifiedTime().toMillis());
+                if (sendRanges(request, response, file, attributes.size(), contentType, etag, lastModified)) {
+                    return false; // No continuar, respuesta parcial servida
+                }
+                if (!head && isCacheEnabled() && attributes.size() <= MAX_CACHED_FILE_SIZE) {
+                    StaticFileCache.Entry entry = load(file, contentType, etag, lastModified);
+                    BasicFileAttributes loaded = attributes(file);
+                    if (loaded != null && etag(loaded).equals(etag)) { // No cambió mientras se leía
+                        cache.put(file, entry, generation);
+                    }
+                    send(entry, request, response);
+                } else {
+                    response.setStatus(200);
+                    response.addHeader("Content-Type", contentType);
+                    addValidators(response, etag, lastModified);
+                    response.setBody(new FileRegion(file, 0, attributes.size()));
+                }
                 return false; // No continuar, respuesta servida
             } catch (IOException e) {
                 response.setStatus(500);
@@ -32,4 +118,182 @@ public class StaticFileMiddleware implements Middleware {
         }
         return chain.next(request, response); // Continuar con el siguiente middleware si no es archivo estático
     }
+
+    /**
+     * Solicitudes servidas desde la caché.
+     */
+    public long getCacheHits() {
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    /**
+     * Solicitudes que no encontraron su archivo en la caché.
+     */
+    public long getCacheMisses() {
+        return cache != null ? cache.getMisses() : 0;
+    }
+
+    /**
+     * Bytes que ocupa la caché, contando las variantes gzip.
+     */
+    public long getCacheSize() {
+        return cache != null ? cache.getSize() : 0;
+    }
+
+    /**
+     * Detiene la vigilancia del directorio y vacía la caché.
+     */
+    @Override
+    public void close() throws IOException {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    private boolean isCacheEnabled() {
+        return cache != null && cache.isEnabled();
+    }
+
+    /**
+     * Responde con el contenido cacheado, comprimido si el cliente acepta gzip.
+     */
+    private static void send(StaticFileCache.Entry entry, Request request, Response response) {
+        response.setStatus(200);
+        response.addHeader("Content-Type", entry.contentType());
+        addValidators(response, entry.etag(), entry.lastModified());
+        if (entry.gzipped() != null) {
+            response.addHeader("Vary", "Accept-Encoding");
+            if (request.acceptsGzip()) {
+                response.addHeader("Content-Encoding", "gzip");
+                response.setBody(entry.gzipped());
+                return;
+            }
+        }
+        response.setBody(entry.content());
+    }
+
+    /**
+     * Responde 206 con los rangos de {@code Range}, o 416 si ninguno cabe en el archivo. Un rango se envía como
+     * un {@link FileRegion} y varios como {@code multipart/byteranges}. Devuelve false, para enviar el archivo
+     * completo, si la solicitud no pide rangos válidos o si {@code If-Range} ya no corresponde al archivo.
+     */
+    private static boolean sendRanges(Request request, Response response, Path file, long size,
+                                      String contentType, String etag, String lastModified) {
+        String range = request.getHeader("Range");
+        String method = request.getMethod();
+        if (range == null || !("GET".equals(method) || "HEAD".equals(method))
+                || !ifRangeMatches(request.getHeader("If-Range"), etag, lastModified)) {
+            return false;
+        }
+        List<ByteRange> ranges = ByteRange.parse(range, size);
+        if (ranges == null) {
+            return false;
+        }
+        addValidators(response, etag, lastModified);
+        if (ranges.isEmpty()) {
+            response.setStatus(416);
+            response.addHeader("Content-Range", "bytes */" + size);
+            response.setBody(new JSONObject().put("error", "Rango no satisfacible"));
+            return true;
+        }
+        response.setStatus(206);
+        if (ranges.size() == 1) {
+            ByteRange only = ranges.get(0);
+            response.addHeader("Content-Type", contentType);
+            response.addHeader("Content-Range", only.contentRange(size));
+            response.setBody(new FileRegion(file, only.start(), only.length()));
+        } else {
+            MultipartByteRanges body = new MultipartByteRanges(file, size, contentType, ranges);
+            response.addHeader("Content-Type", body.contentType());
+            response.setBody(body);
+        }
+        return true;
+    }
+
+    /**
+     * {@code If-Range} con un ETag exige que coincida exactamente (comparación fuerte); con una fecha,
+     * que sea la de {@code Last-Modified}. Sin la cabecera siempre se atiende {@code Range}.
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, String lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = DateHeader.parse(ifRange);
+        return date >= 0 && date == DateHeader.parse(lastModified);
+    }
+
+    private static void addValidators(Response response, String etag, String lastModified) {
+        response.addHeader("ETag", etag);
+        response.addHeader("Last-Modified", lastModified);
+        response.addHeader("Accept-Ranges", "bytes");
+    }
+
+    private static StaticFileCache.Entry load(Path file, String contentType, String etag, String lastModified) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        byte[] gzipped = null;
+        if (Response.isCompressible(contentType)) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(content);
+            }
+            if (compressed.size() < content.length) {
+                gzipped = compressed.toByteArray();
+            }
+        }
+        return new StaticFileCache.Entry(content, gzipped, contentType, etag, lastModified);
+    }
+
+    /**
+     * ETag fuerte a partir del tamaño y la fecha de modificación: cambia cuando cambia el archivo
+     * sin necesidad de leerlo.
+     */
+    private static String etag(BasicFileAttributes attributes) {
+        return "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null; // No existe o no se puede leer: no es un archivo estático
+        }
+    }
+
+    /**
+     * {@code Content-Type} según la extensión del archivo, detectado una sola vez por extensión.
+     */
+    private static String contentType(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String extension = dot == -1 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        String contentType = CONTENT_TYPES.get(extension);
+        if (contentType == null) {
+            contentType = Files.probeContentType(file);
+            if (contentType == null) {
+                contentType = DEFAULT_CONTENT_TYPE;
+            }
+            CONTENT_TYPES.put(extension, contentType);
+        }
+        return contentType;
+    }
+
+    /**
+     * Archivo correspondiente a la ruta de la solicitud, o {@code null} si queda fuera del directorio raíz.
+     */
+    private Path resolve(String path) {
+        int query = path.indexOf('?');
+        if (query != -1) {
+            path = path.substring(0, query); // Los assets suelen llevar ?v=... para invalidar cachés
+        }
+        try {
+            Path file = root.resolve(path.startsWith("/") ? path.substring(1) : path).normalize();
+            return file.startsWith(root) ? file : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
 }
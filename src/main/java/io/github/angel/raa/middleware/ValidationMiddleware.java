@@ -1,6 +1,6 @@
 package io.github.angel.raa.middleware;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.angel.raa.exceptions.HttpException;
 import io.github.angel.raa.http.Request;
 import io.github.angel.raa.http.Response;
 import jakarta.validation.ConstraintViolation;
@@ -30,7 +30,6 @@ import java.util.Set;
  */
 public class ValidationMiddleware<T> implements Middleware {
     private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-    private final ObjectMapper objectMapper = new ObjectMapper();
     private final Class<T> type;
 
     public ValidationMiddleware(Class<T> type) {
@@ -40,15 +39,14 @@ public class ValidationMiddleware<T> implements Middleware {
     @Override
     public boolean handle(Request request, Response response, MiddlewareChain chain) {
         try {
-            JSONObject body = request.getBody();
-            if (body == null || body.isEmpty()) {
+            if (request.isBodyEmpty() || isEmptyObject(request.getBodyBytes())) {
                 response.setStatus(400);
                 response.setBody(new JSONObject().put("error", "El cuerpo de la solicitud es obligatorio"));
                 return false;
             }
 
-            // Convertir el cuerpo JSON al tipo especificado
-            T entity = objectMapper.readValue(body.toString(), type);
+            // Convertir el cuerpo JSON al tipo especificado, directamente desde sus bytes
+            T entity = request.getBodyAs(type);
 
             // Validar la entidad
             Set<ConstraintViolation<T>> violations = validator.validate(entity);
@@ -61,6 +59,8 @@ public class ValidationMiddleware<T> implements Middleware {
                 response.setBody(new JSONObject(errors));
                 return false; // Detener la cadena
             }
+        } catch (HttpException e) {
+            throw e; // P. ej. 413 si el cuerpo es demasiado grande
         } catch (Exception e) {
             response.setStatus(400);
             response.setBody(new JSONObject().put("error", "Error al procesar los datos de entrada"));
@@ -70,4 +70,23 @@ public class ValidationMiddleware<T> implements Middleware {
         // Continuar con la siguiente lógica
         return chain.next(request, response);
     }
+
+    /**
+     * Indica si el cuerpo es un objeto JSON sin propiedades ({@code {}}), que tampoco cuenta como cuerpo.
+     */
+    private static boolean isEmptyObject(byte[] body) {
+        int i = skipWhitespace(body, 0);
+        if (i == body.length || body[i] != '{') {
+            return false;
+        }
+        i = skipWhitespace(body, i + 1);
+        return i < body.length && body[i] == '}' && skipWhitespace(body, i + 1) == body.length;
+    }
+
+    private static int skipWhitespace(byte[] body, int from) {
+        while (from < body.length && (body[from] == ' ' || body[from] == '\t' || body[from] == '\r' || body[from] == '\n')) {
+            from++;
+        }
+        return from;
+    }
 }
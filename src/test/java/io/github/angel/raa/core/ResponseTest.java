@@ -1,6 +1,25 @@
 package io.github.angel.raa.core;
 
+import io.github.angel.raa.http.ChunkedInputStream;
+import io.github.angel.raa.http.DateHeader;
+import io.github.angel.raa.http.FileRegion;
+import io.github.angel.raa.http.Response;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -9,4 +28,324 @@ class ResponseTest {
     @Test
     void addTemplate() {
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWriteToUsesByteLength() throws IOException {
+        /**
+         * Test writeTo with a non-ASCII body
+         * Expected: Content-Length counts UTF-8 bytes and matches build()
+         */
+        Response response = new Response(200, "ñandú");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.writeTo(out);
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(written.contains("Content-Length: 7\r\n"));
+        assertTrue(written.endsWith("\r\n\r\nñandú"));
+        assertEquals(response.build(), written);
+    }
+
+    @Test
+    void testWriteToBinaryBody() throws IOException {
+        /**
+         * Test writeTo with a byte[] body
+         * Expected: the bytes are written unchanged after the head
+         */
+        byte[] body = {0, (byte) 0xFF, 10, 13};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new Response(200, body, "application/octet-stream").writeTo(out);
+
+        byte[] written = out.toByteArray();
+        String head = new String(written, 0, written.length - body.length, StandardCharsets.US_ASCII);
+        assertTrue(head.contains("Content-Length: 4\r\n"));
+        assertTrue(head.endsWith("\r\n\r\n"));
+        for (int i = 0; i < body.length; i++) {
+            assertEquals(body[i], written[written.length - body.length + i]);
+        }
+    }
+
+    @Test
+    void testStatusLineReasonPhrases() {
+        /**
+         * Test build with status codes outside the old 200/404/500 switch
+         * Expected: the standard reason phrase for each code
+         */
+        assertTrue(new Response(201, "").build().startsWith("HTTP/1.1 201 Created\r\n"));
+        assertTrue(new Response(204, "").build().startsWith("HTTP/1.1 204 No Content\r\n"));
+        assertTrue(new Response(400, "").build().startsWith("HTTP/1.1 400 Bad Request\r\n"));
+        assertTrue(new Response(401, "").build().startsWith("HTTP/1.1 401 Unauthorized\r\n"));
+        assertTrue(new Response(403, "").build().startsWith("HTTP/1.1 403 Forbidden\r\n"));
+        assertTrue(new Response(429, "").build().startsWith("HTTP/1.1 429 Too Many Requests\r\n"));
+        assertTrue(new Response(504, "").build().startsWith("HTTP/1.1 504 Gateway Timeout\r\n"));
+        assertTrue(new Response(599, "").build().startsWith("HTTP/1.1 599 Unknown Status\r\n"));
+    }
+
+    @Test
+    void testDateHeader() {
+        /**
+         * Test build while the shared Date ticker is running and after it stops
+         * Expected: an RFC 1123 Date line only while it runs
+         */
+        DateHeader.start();
+        try {
+            assertTrue(new Response(200, "").build()
+                    .matches("(?s).*\r\nDate: \\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r\n.*"));
+        } finally {
+            DateHeader.stop();
+        }
+        assertFalse(new Response(200, "").build().contains("Date: "));
+    }
+
+    @Test
+    void testWriteToChunkedBody() throws IOException {
+        /**
+         * Test writeTo with an InputStream body of unknown length
+         * Expected: Transfer-Encoding: chunked instead of Content-Length, one chunk and the last chunk
+         */
+        Response response = new Response(200, new ByteArrayInputStream("hola mundo".getBytes(StandardCharsets.UTF_8)), "text/plain");
+        response.addHeader("Content-Length", "99");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.writeTo(out);
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(response.isChunked());
+        assertTrue(written.contains("Transfer-Encoding: chunked\r\n"));
+        assertFalse(written.contains("Content-Length"));
+        assertTrue(written.endsWith("\r\n\r\na\r\nhola mundo\r\n0\r\n\r\n"));
+    }
+
+    @Test
+    void testCloseDelimitedBody() throws IOException {
+        /**
+         * Test an unknown-length body sent to an HTTP/1.0 client
+         * Expected: neither Transfer-Encoding nor Content-Length, the raw body and the connection closed after it
+         */
+        Response response = new Response(200, new ByteArrayInputStream("hola mundo".getBytes(StandardCharsets.UTF_8)), "text/plain");
+        response.closeDelimited();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ResponsePipeline pipeline = new ResponsePipeline(Runnable::run);
+        pipeline.add(response, true);
+
+        assertFalse(pipeline.flush(sent -> sent.writeTo(out)));
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Connection: close\r\n"));
+        assertFalse(written.contains("Transfer-Encoding"));
+        assertFalse(written.contains("Content-Length"));
+        assertTrue(written.endsWith("\r\n\r\nhola mundo"));
+    }
+
+    @Test
+    void testHandlerConnectionClose() throws IOException {
+        /**
+         * Test a handler response with its own Connection: close, followed by another queued response
+         * Expected: the header is kept, the connection is closed and the next response is not written
+         */
+        Response close = Response.Ok("adiós");
+        close.addHeader("Connection", "close");
+        Response other = Response.Ok("otra");
+        other.addHeader("connection", "Keep-Alive");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ResponsePipeline pipeline = new ResponsePipeline(Runnable::run);
+        pipeline.add(other, true);
+        pipeline.add(close, true);
+        pipeline.add(Response.Ok("perdida"), true);
+
+        assertFalse(pipeline.flush(sent -> sent.writeTo(out)));
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Connection: keep-alive\r\n"));
+        assertFalse(written.contains("connection:"));
+        assertTrue(written.contains("Connection: close\r\n"));
+        assertTrue(written.endsWith("adiós"));
+        assertFalse(written.contains("perdida"));
+    }
+
+    @Test
+    void testStreamWithGzip() throws IOException {
+        /**
+         * Test a streamed text response compressed with gzip
+         * Expected: chunked framing, Content-Encoding: gzip and a body that decompresses to what the callback wrote
+         */
+        Response response = Response.streamText(200, "text/csv; charset=UTF-8", out -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write("fila," + i + "\n");
+                if (i == 500) {
+                    out.flush();
+                }
+            }
+            out.close();
+        });
+        response.gzip();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.writeTo(out);
+
+        byte[] written = out.toByteArray();
+        String head = new String(written, StandardCharsets.ISO_8859_1);
+        int bodyStart = head.indexOf("\r\n\r\n") + 4;
+        assertTrue(head.substring(0, bodyStart).contains("Transfer-Encoding: chunked\r\n"));
+        assertTrue(head.substring(0, bodyStart).contains("Content-Encoding: gzip\r\n"));
+        ChunkedInputStream chunked = new ChunkedInputStream(written, bodyStart, written.length, java.io.InputStream.nullInputStream());
+        String body = new String(new GZIPInputStream(chunked).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(1000, body.lines().count());
+        assertTrue(body.endsWith("fila,999\n"));
+    }
+
+    /**
+     * Cuerpo decodificado de una respuesta chunked escrita en memoria.
+     */
+    private static String chunkedBody(Response response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out);
+        byte[] written = out.toByteArray();
+        int bodyStart = new String(written, StandardCharsets.ISO_8859_1).indexOf("\r\n\r\n") + 4;
+        ChunkedInputStream chunked = new ChunkedInputStream(written, bodyStart, written.length, java.io.InputStream.nullInputStream());
+        return new String(chunked.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testNdjsonAndJsonArray() throws IOException {
+        /**
+         * Test ndjson(Stream) and jsonArray(Iterator)
+         * Expected: one JSON value per line, a well-formed array, and the source stream closed afterwards
+         */
+        AtomicBoolean closed = new AtomicBoolean();
+        Response ndjson = Response.ndjson(IntStream.range(0, 3).mapToObj(i -> Map.of("id", i)).onClose(() -> closed.set(true)));
+        assertEquals("application/x-ndjson", ndjson.getHeaders().get("Content-Type"));
+        assertEquals("{\"id\":0}\n{\"id\":1}\n{\"id\":2}\n", chunkedBody(ndjson));
+        assertTrue(closed.get());
+
+        assertEquals("[\"a\",\"b\"]", chunkedBody(Response.jsonArray(List.of("a", "b").iterator())));
+        assertEquals("[]", chunkedBody(Response.jsonArray(List.of().iterator())));
+    }
+
+    record Item(int id, String name) {
+    }
+
+    @Test
+    void testJsonPojoBody() throws IOException {
+        /**
+         * Test json(Object) with a record, a body larger than a pooled buffer and a value Jackson cannot serialize
+         * Expected: the serialized JSON with its byte length, and a 500 response for the unserializable value
+         */
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Response.json(new Item(1, "café")).writeTo(out);
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.startsWith("HTTP/1.1 200 OK\r\n"));
+        assertTrue(written.contains("Content-Type: application/json; charset=UTF-8\r\n"));
+        assertTrue(written.contains("Content-Length: 23\r\n"));
+        assertTrue(written.endsWith("\r\n\r\n{\"id\":1,\"name\":\"café\"}"));
+
+        String large = "x".repeat(20_000);
+        String built = Response.json(201, List.of(large)).build();
+        assertTrue(built.startsWith("HTTP/1.1 201 Created\r\n"));
+        assertTrue(built.endsWith("[\"" + large + "\"]"));
+
+        Response failed = Response.json(new Object());
+        String error = failed.build();
+        assertEquals(500, failed.getStatus());
+        assertTrue(error.endsWith("{\"error\":\"Error al serializar la respuesta\"}"));
+    }
+
+    @Test
+    void testWriteToFileBody(@TempDir Path dir) throws IOException {
+        /**
+         * Test writing a response whose body is a whole file and a region of it
+         * Expected: Content-Length in bytes followed by exactly the selected bytes of the file
+         */
+        Path file = Files.writeString(dir.resolve("app.js"), "console.log('ñ');");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Response.file(file, "text/javascript").writeTo(out);
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Content-Type: text/javascript\r\n"));
+        assertTrue(written.contains("Content-Length: 18\r\n"));
+        assertTrue(written.endsWith("\r\n\r\nconsole.log('ñ');"));
+
+        out.reset();
+        new Response(200, new FileRegion(file, 8, 3), "text/plain").writeTo(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("Content-Length: 3\r\n\r\nlog"));
+    }
+
+    @Test
+    void testConditionalGet() {
+        /**
+         * Test weak ETags over a JSON body and the If-None-Match / If-Modified-Since validators
+         * Expected: 304 without body, Content-Type or Content-Length when the validators match, 200 otherwise
+         */
+        String full = Response.json(Map.of("id", 1)).weakETag().build();
+        String etag = full.lines().filter(line -> line.startsWith("ETag: ")).findFirst().orElseThrow().substring(6);
+        assertTrue(etag.startsWith("W/\""));
+
+        Response cached = Response.json(Map.of("id", 1)).weakETag();
+        cached.setValidators("\"other\", " + etag.substring(2), null);
+        String notModified = cached.build();
+        assertEquals(304, cached.getStatus());
+        assertTrue(notModified.startsWith("HTTP/1.1 304 Not Modified\r\n"));
+        assertTrue(notModified.contains("ETag: " + etag + "\r\n"));
+        assertFalse(notModified.contains("Content-Length"));
+        assertFalse(notModified.contains("Content-Type"));
+        assertTrue(notModified.endsWith("\r\n\r\n"));
+
+        Response changed = Response.json(Map.of("id", 2)).weakETag();
+        changed.setValidators(etag, null);
+        changed.build();
+        assertEquals(200, changed.getStatus());
+
+        Response file = new Response(200, new FileRegion(Path.of("no-existe.bin"), 0, 10), "application/octet-stream");
+        file.addHeader("Last-Modified", "Sun, 06 Nov 1994 08:49:37 GMT");
+        file.setValidators(null, "Sun, 06 Nov 1994 08:49:37 GMT");
+        assertTrue(file.build().startsWith("HTTP/1.1 304 Not Modified\r\n"));
+    }
+
+    @Test
+    void testHeadAndBodylessStatuses(@TempDir Path dir) throws IOException {
+        /**
+         * Test HEAD responses and 1xx/204 statuses
+         * Expected: HEAD keeps Content-Length without body; 204 and 1xx send neither Content-Length nor body
+         */
+        Response head = new Response(404, new JSONObject().put("error", "Ruta no encontrada"));
+        head.setRequestMethod("HEAD");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        head.writeTo(out);
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Content-Length: 30\r\n"));
+        assertTrue(written.endsWith("\r\n\r\n"));
+
+        Path file = Files.write(dir.resolve("app.js"), "console.log(1);".getBytes(StandardCharsets.UTF_8));
+        Response headFile = Response.file(file, "text/javascript");
+        headFile.setRequestMethod("HEAD");
+        out.reset();
+        headFile.writeTo(Channels.newChannel(out));
+        written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Content-Length: 15\r\n"));
+        assertTrue(written.endsWith("\r\n\r\n"));
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Response headStream = new Response(200, new ByteArrayInputStream(new byte[10]) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        }, "text/plain");
+        headStream.setRequestMethod("HEAD");
+        String built = headStream.build();
+        assertFalse(built.contains("Transfer-Encoding"));
+        assertTrue(closed.get());
+
+        String noContent = Response.NoContent(new JSONObject().put("a", 1)).build();
+        assertTrue(noContent.startsWith("HTTP/1.1 204 No Content\r\n"));
+        assertFalse(noContent.contains("Content-Length"));
+        assertTrue(noContent.endsWith("\r\n\r\n"));
+
+        out.reset();
+        new Response(101, "upgrade").writeTo(out);
+        written = out.toString(StandardCharsets.UTF_8);
+        assertFalse(written.contains("Content-Length"));
+        assertTrue(written.endsWith("\r\n\r\n"));
+    }
+}
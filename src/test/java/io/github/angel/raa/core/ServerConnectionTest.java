@@ -0,0 +1,284 @@
+package io.github.angel.raa.core;
+
+import io.github.angel.raa.http.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los motores de conexión a través de un socket real, en un puerto efímero.
+ */
+class ServerConnectionTest {
+    private static final int KEEP_ALIVE_TIMEOUT = 500;
+    private Server server;
+    private Thread serverThread;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean lastStarted = new AtomicBoolean();
+
+    private record HttpReply(int status, Map<String, String> headers, String body) {
+        String header(String name) {
+            return headers.get(name.toLowerCase());
+        }
+    }
+
+    private Server start(ServerMode mode) throws InterruptedException {
+        server = new Server(0, "localhost", 4, mode);
+        server.setParallelPipelining(true);
+        server.setKeepAliveTimeout(KEEP_ALIVE_TIMEOUT);
+        server.get("/hello", request -> Response.Ok("hola"));
+        server.post("/echo", request -> Response.Ok(request.getBodyText()));
+        server.get("/slow", request -> {
+            sleep(300);
+            return Response.Ok("lenta");
+        });
+        server.get("/block", request -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.Ok("bloqueada");
+        });
+        server.get("/last", request -> {
+            lastStarted.set(true);
+            return Response.Ok("última");
+        });
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (server.getPort() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "El servidor no arrancó");
+            Thread.sleep(10);
+        }
+        return server;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        release.countDown();
+        if (server != null) {
+            server.stop();
+            serverThread.join(5_000);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    /**
+     * Escribe cada fragmento por separado, con una pausa entre ellos para que lleguen en lecturas distintas.
+     */
+    private static void send(Socket socket, String... parts) throws IOException, InterruptedException {
+        OutputStream out = socket.getOutputStream();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                Thread.sleep(50);
+            }
+            out.write(parts[i].getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+
+    /**
+     * Lee una respuesta delimitada por {@code Content-Length}.
+     */
+    private static HttpReply read(Socket socket) throws IOException {
+        InputStream in = socket.getInputStream();
+        String statusLine = readLine(in);
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+        }
+        int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+        byte[] body = in.readNBytes(length);
+        assertEquals(length, body.length, "Respuesta incompleta");
+        return new HttpReply(Integer.parseInt(statusLine.split(" ")[1]), headers, new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            assertNotEquals(-1, b, "Conexión cerrada a mitad de la respuesta");
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testRequestSplitAcrossWrites(ServerMode mode) throws Exception {
+        /**
+         * Test a head and a body that arrive split across several writes
+         * Expected: each request is answered once it is complete
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "GET /hel", "lo HTTP/1.1\r\nHo", "st: x\r\n", "\r\n");
+            assertEquals("hola", read(socket).body());
+
+            send(socket, "POST /echo HTTP/1.1\r\nContent-Length: 11\r\n\r\nhello", " wor", "ld");
+            assertEquals("hello world", read(socket).body());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testPipelinedRequestsInOneWrite(ServerMode mode) throws Exception {
+        /**
+         * Test two requests sent in a single write, the second one with a body
+         * Expected: both responses, in request order, on the same connection
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "GET /hello HTTP/1.1\r\n\r\nPOST /echo HTTP/1.1\r\nContent-Length: 3\r\n\r\nabc");
+            assertEquals("hola", read(socket).body());
+            assertEquals("abc", read(socket).body());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testChunkedUpload(ServerMode mode) throws Exception {
+        /**
+         * Test a chunked request body split across writes, followed by another request
+         * Expected: the decoded body reaches the handler and the connection stays usable
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "POST /echo HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhel",
+                    "lo\r\n6\r\n world\r\n", "0\r\n\r\n");
+            HttpReply reply = read(socket);
+            assertEquals(200, reply.status());
+            assertEquals("hello world", reply.body());
+
+            send(socket, "GET /hello HTTP/1.1\r\n\r\n");
+            assertEquals("hola", read(socket).body());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testKeepAliveIdleTimeout(ServerMode mode) throws Exception {
+        /**
+         * Test a persistent connection that stays idle after its response
+         * Expected: the server keeps it open for the request, then closes it after the keep-alive timeout
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "GET /hello HTTP/1.1\r\n\r\n");
+            HttpReply reply = read(socket);
+            assertEquals("keep-alive", reply.header("Connection"));
+
+            long idle = System.currentTimeMillis();
+            assertEquals(-1, socket.getInputStream().read());
+            assertTrue(System.currentTimeMillis() - idle >= KEEP_ALIVE_TIMEOUT - 50, "Cerrada antes del tiempo de inactividad");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testConnectionNegotiation(ServerMode mode) throws Exception {
+        /**
+         * Test the Connection header of HTTP/1.0 and HTTP/1.1 requests
+         * Expected: HTTP/1.0 closes unless it asks for keep-alive; HTTP/1.1 stays open unless it asks to close
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "GET /hello HTTP/1.0\r\n\r\n");
+            assertEquals("close", read(socket).header("Connection"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        try (Socket socket = connect()) {
+            send(socket, "GET /hello HTTP/1.0\r\nConnection: keep-alive\r\n\r\n");
+            assertEquals("keep-alive", read(socket).header("Connection"));
+            send(socket, "GET /hello HTTP/1.1\r\n\r\n");
+            assertEquals("keep-alive", read(socket).header("Connection"));
+            send(socket, "GET /hello HTTP/1.1\r\nConnection: close\r\n\r\n");
+            HttpReply reply = read(socket);
+            assertEquals("hola", reply.body());
+            assertEquals("close", reply.header("Connection"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testPipelinedResponsesKeepRequestOrder(ServerMode mode) throws Exception {
+        /**
+         * Test a slow GET pipelined before a fast one, with parallel pipelining enabled
+         * Expected: the fast response is written after the slow one
+         */
+        start(mode);
+        try (Socket socket = connect()) {
+            send(socket, "GET /slow HTTP/1.1\r\n\r\nGET /hello HTTP/1.1\r\n\r\nGET /slow HTTP/1.1\r\n\r\n");
+            assertEquals("lenta", read(socket).body());
+            assertEquals("hola", read(socket).body());
+            assertEquals("lenta", read(socket).body());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ServerMode.class)
+    void testPipelineLimit(ServerMode mode) throws Exception {
+        /**
+         * Test one more pipelined request than MAX_PIPELINED_REQUESTS, the first of them blocked
+         * Expected: the last request is not read until the queued responses are written; all are answered in order
+         */
+        start(mode);
+        StringBuilder requests = new StringBuilder("GET /block HTTP/1.1\r\n\r\n");
+        for (int i = 2; i < ResponsePipeline.MAX_PIPELINED_REQUESTS + 1; i++) {
+            requests.append("GET /hello HTTP/1.1\r\n\r\n");
+        }
+        requests.append("GET /last HTTP/1.1\r\n\r\n");
+        try (Socket socket = connect()) {
+            send(socket, requests.toString());
+            Thread.sleep(300);
+            assertFalse(lastStarted.get(), "Se leyeron más solicitudes que el límite de la cola");
+
+            release.countDown();
+            assertEquals("bloqueada", read(socket).body());
+            for (int i = 2; i < ResponsePipeline.MAX_PIPELINED_REQUESTS + 1; i++) {
+                assertEquals("hola", read(socket).body());
+            }
+            assertEquals("última", read(socket).body());
+            assertTrue(lastStarted.get());
+        }
+    }
+}
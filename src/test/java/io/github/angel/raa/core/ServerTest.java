@@ -1,7 +1,37 @@
 package io.github.angel.raa.core;
 
+import io.github.angel.raa.http.HttpRequestHead;
+import io.github.angel.raa.http.HttpRequestParser;
+import io.github.angel.raa.http.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ServerTest {
 
-}
\ No newline at end of file
+    private static HttpRequestHead head(String request) {
+        byte[] bytes = request.getBytes(StandardCharsets.US_ASCII);
+        HttpRequestParser parser = new HttpRequestParser();
+        assertEquals(bytes.length, parser.parse(bytes, 0, bytes.length));
+        return parser.head();
+    }
+
+    @Test
+    void testInvalidBodyFraming() {
+        /**
+         * Test invalidBodyFraming with ambiguous Content-Length and Transfer-Encoding headers
+         * Expected: 400 for differing Content-Length values and for Content-Length with chunked, 501 for other codings
+         */
+        assertNull(Server.invalidBodyFraming(head("POST / HTTP/1.1\r\nContent-Length: 3\r\nContent-Length: 3\r\n\r\n")));
+        assertNull(Server.invalidBodyFraming(head("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n")));
+
+        Response different = Server.invalidBodyFraming(head("POST / HTTP/1.1\r\nContent-Length: 3\r\nContent-Length: 30\r\n\r\n"));
+        assertEquals(400, different.getStatus());
+        Response both = Server.invalidBodyFraming(head("POST / HTTP/1.1\r\nContent-Length: 3\r\nTransfer-Encoding: chunked\r\n\r\n"));
+        assertEquals(400, both.getStatus());
+        Response gzip = Server.invalidBodyFraming(head("POST / HTTP/1.1\r\nTransfer-Encoding: gzip, chunked\r\n\r\n"));
+        assertEquals(501, gzip.getStatus());
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.annotations.Get;
+import io.github.angel.raa.annotations.Post;
+import io.github.angel.raa.exceptions.HttpException;
+import io.github.angel.raa.http.Request;
+import io.github.angel.raa.http.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ControllerTest {
+
+    static class UserController extends Controller {
+        UserController() {
+            super("/users");
+        }
+
+        @Get("/ping")
+        Response ping(Request request) {
+            return new Response(200, "pong");
+        }
+
+        @Post("/fail")
+        public Response fail(Request request) {
+            throw new IllegalArgumentException("dato inválido");
+        }
+
+        @Get("/forbidden")
+        public Response forbidden(Request request) {
+            throw new HttpException(403, "prohibido");
+        }
+
+        @Get("/broken")
+        public Response broken(Request request) {
+            throw new IllegalStateException("roto");
+        }
+
+        // Los métodos que no devuelven Response se llaman por reflexión
+        @Post("/legacy/fail")
+        public Object legacyFail(Request request) {
+            throw new IllegalArgumentException("dato inválido");
+        }
+
+        @Get("/legacy/forbidden")
+        public Object legacyForbidden(Request request) {
+            throw new HttpException(403, "prohibido");
+        }
+
+        @Get("/legacy/broken")
+        public Object legacyBroken(Request request) {
+            throw new IllegalStateException("roto");
+        }
+
+        @Get("/no-request")
+        public Response noRequest() {
+            return new Response(200, "nunca");
+        }
+    }
+
+    @Test
+    public void testAnnotatedRoutes() {
+        /**
+         * Test the generated invokers for annotated methods, including a package-private one
+         * Expected: the method response, and 400 when the method throws IllegalArgumentException
+         */
+        UserController controller = new UserController();
+
+        Response pong = controller.getRoutes().get("GET /users/ping").handle(null);
+        assertEquals(200, pong.getStatus());
+        assertTrue(pong.build().endsWith("pong"));
+
+        Response fail = controller.getRoutes().get("POST /users/fail").handle(null);
+        assertEquals(400, fail.getStatus());
+        assertTrue(fail.build().endsWith("dato inválido"));
+    }
+
+    @Test
+    public void testExceptionMapping() {
+        /**
+         * Test the exceptions thrown by route methods called through the generated invoker and through reflection
+         * Expected: both propagate HttpException and map IllegalArgumentException to 400 and other exceptions to 500;
+         * a method that reflection cannot call with the request gives 500
+         */
+        UserController controller = new UserController();
+
+        HttpException generated = assertThrows(HttpException.class,
+                () -> controller.getRoutes().get("GET /users/forbidden").handle(null));
+        assertEquals(403, generated.getStatusCode());
+        HttpException reflective = assertThrows(HttpException.class,
+                () -> controller.getRoutes().get("GET /users/legacy/forbidden").handle(null));
+        assertEquals(403, reflective.getStatusCode());
+
+        Response fail = controller.getRoutes().get("POST /users/legacy/fail").handle(null);
+        assertEquals(400, fail.getStatus());
+        assertTrue(fail.build().endsWith("dato inválido"));
+
+        for (String route : new String[]{"GET /users/broken", "GET /users/legacy/broken"}) {
+            Response broken = controller.getRoutes().get(route).handle(null);
+            assertEquals(500, broken.getStatus());
+            assertTrue(broken.build().endsWith("Error interno del servidor: roto"));
+        }
+
+        Response noRequest = controller.getRoutes().get("GET /users/no-request").handle(null);
+        assertEquals(500, noRequest.getStatus());
+        assertTrue(noRequest.build().contains("Error al invocar el método del controlador"));
+    }
+}
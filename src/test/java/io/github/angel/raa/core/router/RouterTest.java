@@ -0,0 +1,163 @@
+package io.github.angel.raa.core.router;
+
+import io.github.angel.raa.handler.Handler;
+import io.github.angel.raa.http.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterTest {
+
+    private static Handler handler(String name) {
+        return request -> new Response(200, name);
+    }
+
+    @Test
+    public void testStaticRouteBeforeParam() {
+        /**
+         * Test getRouteMatch with a static route and a param route at the same position
+         * Expected: the static route wins regardless of registration order
+         */
+        Handler byId = handler("byId");
+        Handler newUser = handler("new");
+        Router router = new Router();
+        router.get("/users/:id", byId);
+        router.get("/users/new", newUser);
+
+        assertSame(newUser, router.getRouteMatch("GET", "/users/new").getHandler());
+        RouteMatch match = router.getRouteMatch("GET", "/users/42?page=1");
+        assertSame(byId, match.getHandler());
+        assertEquals("42", match.getParams().get("id"));
+    }
+
+    @Test
+    public void testBacktrackToParam() {
+        /**
+         * Test getRouteMatch when the static branch does not lead to a route
+         * Expected: falls back to the param branch and extracts every param
+         */
+        Handler posts = handler("posts");
+        Router router = new Router();
+        router.get("/users/new", handler("new"));
+        router.get("/users/:userId/posts/:postId", posts);
+
+        RouteMatch match = router.getRouteMatch("GET", "/users/new/posts/7/");
+        assertSame(posts, match.getHandler());
+        assertEquals("new", match.getParams().get("userId"));
+        assertEquals("7", match.getParams().get("postId"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        /**
+         * Test getRouteMatch with unknown paths and methods
+         * Expected: null
+         */
+        Router router = new Router();
+        router.get("/", handler("root"));
+        router.get("/users/:id", handler("byId"));
+
+        assertNotNull(router.getRouteMatch("GET", "/"));
+        assertNull(router.getRouteMatch("GET", "/users"));
+        assertNull(router.getRouteMatch("GET", "/users/1/extra"));
+        assertNull(router.getRouteMatch("POST", "/users/1"));
+    }
+
+    @Test
+    public void testHeadFallsBackToGet() {
+        /**
+         * Test getRouteMatch for HEAD with and without its own route
+         * Expected: the HEAD route when registered, otherwise the GET route
+         */
+        Handler get = handler("get");
+        Handler head = handler("head");
+        Router router = new Router();
+        router.get("/users/:id", get);
+        router.get("/status", handler("status"));
+        router.addRoute("HEAD", "/status", head);
+
+        assertSame(get, router.getRouteMatch("HEAD", "/users/1").getHandler());
+        assertSame(head, router.getRouteMatch("HEAD", "/status").getHandler());
+        assertNull(router.getRouteMatch("HEAD", "/missing"));
+    }
+
+    @Test
+    public void testPipelineRunsEachMiddlewareOnce() {
+        /**
+         * Test the compiled pipeline with a global middleware added after the route
+         * Expected: global then route middleware, each once per request, then the handler
+         */
+        List<String> calls = new ArrayList<>();
+        Router router = new Router();
+        router.addRoute("GET", "/items", request -> {
+            calls.add("handler");
+            return new Response(200, "ok");
+        }, (request, response, chain) -> {
+            calls.add("route");
+            return chain.next(request, response);
+        });
+        router.setGlobalMiddlewares(List.of((request, response, chain) -> {
+            calls.add("global");
+            return chain.next(request, response);
+        }));
+
+        Handler pipeline = router.getRouteMatch("GET", "/items").getPipeline();
+        pipeline.handle(null);
+        pipeline.handle(null);
+
+        assertEquals(List.of("global", "route", "handler", "global", "route", "handler"), calls);
+    }
+
+    @Test
+    public void testAddAndRemoveRoutesAtRuntime() {
+        /**
+         * Test addRoute/removeRoute after lookups have started
+         * Expected: matches taken before the swap keep working; new lookups see the new table
+         */
+        Handler flagged = handler("flagged");
+        Router router = new Router();
+        router.get("/users/:id", handler("byId"));
+        RouteMatch before = router.getRouteMatch("GET", "/users/1");
+
+        router.get("/beta", flagged);
+        assertSame(flagged, router.getRouteMatch("GET", "/beta").getHandler());
+
+        assertTrue(router.removeRoute("get", "/beta"));
+        assertFalse(router.removeRoute("GET", "/beta"));
+        assertNull(router.getRouteMatch("GET", "/beta"));
+        assertEquals("1", before.getParams().get("id"));
+        assertNotNull(router.getRouteMatch("GET", "/users/2"));
+    }
+
+    @Test
+    public void testChangesToOneMethodKeepTheOthers() {
+        /**
+         * Test many routes registered in a row, then a change to one method and to the global middlewares after lookups
+         * Expected: every route is found, other methods keep their routes, and the new global middleware reaches all of them
+         */
+        Router router = new Router();
+        for (int i = 0; i < 1000; i++) {
+            router.get("/items/" + i, handler("get" + i));
+        }
+        Handler create = handler("create");
+        router.post("/items", create);
+        assertNotNull(router.getRouteMatch("GET", "/items/999"));
+
+        router.delete("/items/:id", handler("delete"));
+        assertSame(create, router.getRouteMatch("POST", "/items").getHandler());
+        assertNotNull(router.getRouteMatch("GET", "/items/0"));
+        assertEquals("7", router.getRouteMatch("DELETE", "/items/7").getParams().get("id"));
+
+        List<String> calls = new ArrayList<>();
+        router.setGlobalMiddlewares(List.of((request, response, chain) -> {
+            calls.add("global");
+            return chain.next(request, response);
+        }));
+        router.getRouteMatch("POST", "/items").getPipeline().handle(null);
+        router.getRouteMatch("GET", "/items/5").getPipeline().handle(null);
+        assertEquals(List.of("global", "global"), calls);
+    }
+}
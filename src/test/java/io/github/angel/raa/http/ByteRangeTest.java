@@ -0,0 +1,33 @@
+package io.github.angel.raa.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteRangeTest {
+
+    @Test
+    public void testParse() {
+        /**
+         * Test the Range forms: closed, open-ended, suffix, out of bounds, overlapping and invalid
+         * Expected: clamped and coalesced ranges, an empty list when unsatisfiable and null when the header is ignored
+         */
+        assertEquals(List.of(new ByteRange(0, 499)), ByteRange.parse("bytes=0-499", 1000));
+        assertEquals(List.of(new ByteRange(900, 999)), ByteRange.parse("bytes=900-", 1000));
+        assertEquals(List.of(new ByteRange(800, 999)), ByteRange.parse("bytes=-200", 1000));
+        assertEquals(List.of(new ByteRange(0, 999)), ByteRange.parse("bytes=-5000", 1000));
+        assertEquals(List.of(new ByteRange(990, 999)), ByteRange.parse("bytes=990-2000", 1000));
+        assertEquals(List.of(new ByteRange(0, 20), new ByteRange(50, 59)), ByteRange.parse("bytes=50-59, 0-9,5-20", 1000));
+        assertEquals(List.of(), ByteRange.parse("bytes=1000-1100", 1000));
+        assertEquals(List.of(), ByteRange.parse("bytes=-0", 1000));
+
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-9", 1000));
+        assertNull(ByteRange.parse("bytes=9-0", 1000));
+        assertNull(ByteRange.parse("bytes=a-b", 1000));
+        assertNull(ByteRange.parse("bytes=" + "0-0,".repeat(ByteRange.MAX_RANGES) + "1-1", 1000));
+        assertEquals("bytes 0-499/1000", new ByteRange(0, 499).contentRange(1000));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.angel.raa.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedInputStreamTest {
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testDecodeAcrossReads() throws IOException {
+        /**
+         * Test a chunked body with extensions and trailers, split between the buffer and the socket
+         * Expected: the decoded body, and the buffer positioned at the next pipelined request
+         */
+        byte[] buffer = new byte[16];
+        byte[] start = ascii("5;ext=1\r\nhel");
+        System.arraycopy(start, 0, buffer, 0, start.length);
+        ByteArrayInputStream socket = new ByteArrayInputStream(ascii("lo\r\n6\r\n mundo\r\n0\r\nX-Trailer: 1\r\n\r\nGET / HTTP/1.1"));
+
+        ChunkedInputStream body = new ChunkedInputStream(buffer, 0, start.length, socket);
+
+        assertEquals("hello mundo", new String(body.readAllBytes(), StandardCharsets.US_ASCII));
+        assertEquals(-1, body.read());
+        String next = new String(buffer, body.bufferPosition(), body.bufferLimit() - body.bufferPosition(), StandardCharsets.US_ASCII)
+                + new String(socket.readAllBytes(), StandardCharsets.US_ASCII);
+        assertEquals("GET / HTTP/1.1", next);
+    }
+
+    @Test
+    public void testInvalidAndTruncated() {
+        /**
+         * Test malformed chunk sizes and a connection closed before the last chunk
+         * Expected: IOException, and EOFException for the truncated body
+         */
+        byte[] invalid = ascii("zz\r\nhello\r\n0\r\n\r\n");
+        assertThrows(IOException.class,
+                () -> new ChunkedInputStream(invalid, 0, invalid.length, InputStream.nullInputStream()).readAllBytes());
+
+        byte[] truncated = ascii("5\r\nhel");
+        assertThrows(EOFException.class,
+                () -> new ChunkedInputStream(truncated, 0, truncated.length, InputStream.nullInputStream()).readAllBytes());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        /**
+         * Test ChunkedOutputStream output decoded by ChunkedInputStream, with small writes and a large block
+         * Expected: the original bytes
+         */
+        byte[] large = new byte[20_000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (ChunkedOutputStream chunked = new ChunkedOutputStream(encoded)) {
+            chunked.write('a');
+            chunked.write(ascii("bc"));
+            chunked.flush();
+            chunked.write(large);
+        }
+        expected.write(ascii("abc"));
+        expected.write(large);
+
+        byte[] buffer = new byte[8192];
+        ChunkedInputStream decoded = new ChunkedInputStream(buffer, 0, 0, new ByteArrayInputStream(encoded.toByteArray()));
+        assertArrayEquals(expected.toByteArray(), decoded.readAllBytes());
+    }
+}
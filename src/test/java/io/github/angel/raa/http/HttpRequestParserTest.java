@@ -0,0 +1,129 @@
+package io.github.angel.raa.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpRequestParserTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testParseCompleteHead() {
+        /**
+         * Test parse with a complete request line and headers
+         * Expected: body offset and lazily readable method, target and headers
+         */
+        byte[] request = bytes("POST /users?page=2 HTTP/1.1\r\nHost: localhost\r\nContent-Length: 7\r\n\r\n{\"a\":1}");
+        HttpRequestParser parser = new HttpRequestParser();
+
+        int bodyStart = parser.parse(request, 0, request.length);
+
+        assertEquals(request.length - 7, bodyStart);
+        HttpRequestHead head = parser.head();
+        assertSame("POST", head.method());
+        assertEquals("/users?page=2", head.target());
+        assertTrue(head.isHttp11());
+        assertEquals("localhost", head.getHeader("host"));
+        assertEquals(7, head.contentLength());
+        assertNull(head.getHeader("Accept"));
+    }
+
+    @Test
+    public void testParseIncrementally() {
+        /**
+         * Test parse when the head arrives in several reads
+         * Expected: NEED_MORE until the blank line arrives
+         */
+        byte[] request = bytes("GET / HTTP/1.1\r\nHost: x\r\n\r\n");
+        HttpRequestParser parser = new HttpRequestParser();
+
+        assertEquals(HttpRequestParser.NEED_MORE, parser.parse(request, 0, 10));
+        assertEquals(HttpRequestParser.NEED_MORE, parser.parse(request, 0, request.length - 1));
+        assertEquals(request.length, parser.parse(request, 0, request.length));
+        assertEquals("x", parser.head().getHeader("Host"));
+    }
+
+    @Test
+    public void testParsePipelinedRequests() {
+        /**
+         * Test parse with two requests in the same buffer
+         * Expected: the second one is parsed from the offset where the first ended
+         */
+        byte[] requests = bytes("GET /a HTTP/1.1\r\n\r\nGET /b HTTP/1.0\r\nConnection: keep-alive\r\n\r\n");
+        HttpRequestParser parser = new HttpRequestParser();
+
+        int first = parser.parse(requests, 0, requests.length);
+        assertEquals("/a", parser.head().target());
+        assertEquals(requests.length, parser.parse(requests, first, requests.length));
+        assertEquals("/b", parser.head().target());
+        assertTrue(parser.head().isHttp10());
+        assertTrue(parser.head().headerEqualsIgnoreCase("connection", "Keep-Alive"));
+    }
+
+    @Test
+    public void testParseInvalidRequests() {
+        /**
+         * Test parse with malformed request lines, bad Content-Length and oversized heads
+         */
+        HttpRequestParser parser = new HttpRequestParser(64);
+        byte[] noTarget = bytes("GARBAGE\r\n\r\n");
+        assertEquals(HttpRequestParser.INVALID, parser.parse(noTarget, 0, noTarget.length));
+
+        byte[] badLength = bytes("POST / HTTP/1.1\r\nContent-Length: 12a\r\n\r\n");
+        assertTrue(parser.parse(badLength, 0, badLength.length) > 0);
+        assertEquals(-1, parser.head().contentLength());
+
+        byte[] oversized = bytes("GET /" + "a".repeat(100) + " HTTP/1.1\r\n");
+        assertEquals(HttpRequestParser.INVALID, new HttpRequestParser(64).parse(oversized, 0, oversized.length));
+    }
+
+    @Test
+    public void testRepeatedBodyHeaders() {
+        /**
+         * Test contentLength and isChunked with repeated Content-Length and Transfer-Encoding headers
+         * Expected: equal duplicates are accepted, differing ones are invalid (-1), repeated Transfer-Encoding is not chunked
+         */
+        HttpRequestParser parser = new HttpRequestParser();
+        byte[] same = bytes("POST / HTTP/1.1\r\nContent-Length: 5\r\ncontent-length: 5\r\n\r\n");
+        parser.parse(same, 0, same.length);
+        assertEquals(5, parser.head().contentLength());
+
+        byte[] different = bytes("POST / HTTP/1.1\r\nContent-Length: 5\r\nContent-Length: 50\r\n\r\n");
+        parser.parse(different, 0, different.length);
+        assertEquals(-1, parser.head().contentLength());
+
+        byte[] encodings = bytes("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTransfer-Encoding: identity\r\n\r\n");
+        parser.parse(encodings, 0, encodings.length);
+        assertFalse(parser.head().isChunked());
+    }
+
+    @Test
+    public void testMalformedHeaderLines() {
+        /**
+         * Test parse with whitespace before the colon, non-token names, lines without colon and obs-fold
+         * Expected: INVALID for each, while a well-formed header line is still accepted
+         */
+        HttpRequestParser parser = new HttpRequestParser();
+        for (String line : new String[]{
+                "Content-Length : 5",
+                "Content-Length\t: 5",
+                "Bad(Name): 1",
+                "Bad Name: 1",
+                ": empty",
+                "NoColon",
+                " folded: value",
+                "\tX-Continued"}) {
+            byte[] request = bytes("POST / HTTP/1.1\r\nHost: x\r\n" + line + "\r\n\r\n");
+            assertEquals(HttpRequestParser.INVALID, parser.parse(request, 0, request.length), line);
+        }
+
+        byte[] valid = bytes("POST / HTTP/1.1\r\nX-Custom_Header.1~: a : b\r\n\r\n");
+        assertTrue(parser.parse(valid, 0, valid.length) > 0);
+        assertEquals("a : b", parser.head().getHeader("X-Custom_Header.1~"));
+    }
+}
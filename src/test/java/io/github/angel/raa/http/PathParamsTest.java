@@ -0,0 +1,41 @@
+package io.github.angel.raa.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathParamsTest {
+
+    @Test
+    public void testReadValuesFromOffsets() {
+        /**
+         * Test get/getLong/getInt over offsets inside the request path
+         * Expected: the values between the offsets, and the default for unknown names
+         */
+        String path = "/users/42/posts/-7";
+        PathParams params = new PathParams(path, new String[]{"userId", "postId"}, new int[]{7, 9, 16, 18});
+
+        assertEquals("42", params.get("userId"));
+        assertEquals(42L, params.getLong("userId", 0));
+        assertEquals(-7, params.getInt("postId", 0));
+        assertEquals(5, params.getInt("missing", 5));
+        assertNull(params.get("missing"));
+        assertEquals("-7", params.toMap().get("postId"));
+    }
+
+    @Test
+    public void testParseLongLimits() {
+        /**
+         * Test parseLong/parseInt against the same limits as Long.parseLong and Integer.parseInt
+         * Expected: extreme values parse; overflow, empty values and non-digits throw NumberFormatException
+         */
+        assertEquals(Long.MIN_VALUE, PathParams.parseLong("-9223372036854775808", 0, 20));
+        assertEquals(Long.MAX_VALUE, PathParams.parseLong("+9223372036854775807", 0, 20));
+        assertEquals(Integer.MIN_VALUE, PathParams.parseInt("x-2147483648", 1, 12));
+        assertThrows(NumberFormatException.class, () -> PathParams.parseLong("9223372036854775808", 0, 19));
+        assertThrows(NumberFormatException.class, () -> PathParams.parseInt("2147483648", 0, 10));
+        assertThrows(NumberFormatException.class, () -> PathParams.parseLong("12a", 0, 3));
+        assertThrows(NumberFormatException.class, () -> PathParams.parseLong("-", 0, 1));
+        assertThrows(NumberFormatException.class, () -> PathParams.parseLong("", 0, 0));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.angel.raa.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryParamsTest {
+
+    @Test
+    public void testPrimitiveAccessors() {
+        /**
+         * Test getInt/getLong/getDouble on a raw query string
+         * Expected: parsed values, defaults for missing keys and the last value for repeated keys
+         */
+        QueryParams query = QueryParams.of("/items?page=2&size=20&offset=9000000000&size=50&ratio=0.5&flag");
+
+        assertEquals(2, query.getInt("page", 1));
+        assertEquals(50, query.getInt("size", 10));
+        assertEquals(9_000_000_000L, query.getLong("offset", 0));
+        assertEquals(0.5, query.getDouble("ratio", 1.0));
+        assertEquals(7, query.getInt("missing", 7));
+        assertFalse(query.contains("flag"));
+        assertThrows(NumberFormatException.class, () -> query.getInt("offset", 0));
+    }
+
+    @Test
+    public void testDecoding() {
+        /**
+         * Test get with percent-encoded keys and values
+         * Expected: decoded values, as with URLDecoder
+         */
+        QueryParams query = QueryParams.of("/search?q=caf%C3%A9+con+leche&sort%5Bby%5D=name&n=%31%32");
+
+        assertEquals("café con leche", query.get("q"));
+        assertEquals("name", query.get("sort[by]"));
+        assertEquals(12, query.getInt("n", 0));
+        assertNull(QueryParams.of("/search").get("q"));
+    }
+}
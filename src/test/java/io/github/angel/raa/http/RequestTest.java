@@ -0,0 +1,154 @@
+package io.github.angel.raa.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.github.angel.raa.exceptions.HttpException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTest {
+
+    public static class User {
+        public String name;
+        public int age;
+    }
+
+    private static Request post(String body) {
+        byte[] raw = "POST /users HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        HttpRequestParser parser = new HttpRequestParser();
+        parser.parse(raw, 0, raw.length);
+        return new Request("127.0.0.1", parser.head(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLazyBody() {
+        /**
+         * Test the body representations of a request built from raw bytes
+         * Expected: POJO, Map and JSONObject views of the same body, and the raw text untouched
+         */
+        Request request = post("{\"name\":\"Ana\",\"age\":30}");
+
+        User user = request.getBodyAs(User.class);
+        assertEquals("Ana", user.name);
+        assertEquals(30, user.age);
+        assertEquals(Map.of("name", "Ana", "age", 30), request.getBodyAsMap());
+        assertEquals("Ana", request.getBodyString("name"));
+        assertEquals(30, request.getBodyInt("age"));
+        assertEquals("{\"name\":\"Ana\",\"age\":30}", request.getBodyText());
+    }
+
+    @Test
+    public void testEmptyAndInvalidBody() {
+        /**
+         * Test an empty body and a body that is not JSON
+         * Expected: empty views for the empty body; the invalid body only fails when it is parsed, with a 400
+         */
+        Request empty = post("");
+        assertTrue(empty.isBodyEmpty());
+        assertTrue(empty.getBody().isEmpty());
+        assertTrue(empty.getBodyAsMap().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> empty.getBodyAs(User.class));
+
+        Request invalid = post("name=Ana");
+        assertEquals("name=Ana", invalid.getBodyText());
+        HttpException e = assertThrows(HttpException.class, invalid::getBody);
+        assertEquals(400, e.getStatusCode());
+    }
+
+    @Test
+    public void testGetBodyAsErrors() {
+        /**
+         * Test getBodyAs with malformed JSON, a body over the size limit and a connection that fails mid-body
+         * Expected: IllegalArgumentException (400) only for malformed JSON; the 413 HttpException unchanged; an I/O error otherwise
+         */
+        Request invalid = post("{\"name\":");
+        assertThrows(IllegalArgumentException.class, () -> invalid.getBodyAs(User.class));
+        assertThrows(IllegalArgumentException.class, () -> invalid.getBodyAs(new TypeReference<Map<String, Object>>() {}));
+
+        Request tooLarge = streamed(Request.MAX_BUFFERED_BODY_SIZE + 1L, InputStream.nullInputStream());
+        HttpException e = assertThrows(HttpException.class, () -> tooLarge.getBodyAs(User.class));
+        assertEquals(413, e.getStatusCode());
+
+        Request broken = streamed(10, new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexión reiniciada");
+            }
+        });
+        assertThrows(UncheckedIOException.class, () -> broken.getBodyAs(User.class));
+    }
+
+    private static Request streamed(long contentLength, InputStream body) {
+        byte[] raw = ("POST /users HTTP/1.1\r\nContent-Length: " + contentLength + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        HttpRequestParser parser = new HttpRequestParser();
+        parser.parse(raw, 0, raw.length);
+        return new Request("127.0.0.1", parser.head(), body);
+    }
+
+    @Test
+    public void testStreamedBody() throws Exception {
+        /**
+         * Test a body split between the read buffer (followed by the next pipelined request) and the socket
+         * Expected: the stream yields exactly Content-Length bytes and leaves the next request untouched
+         */
+        byte[] buffer = "GET /next HTTP/1.1\r\n\r\n0123GET /other".getBytes(StandardCharsets.US_ASCII);
+        int bodyStart = buffer.length - "0123GET /other".length();
+        InputStream socket = new ByteArrayInputStream("456789".getBytes(StandardCharsets.US_ASCII));
+
+        BodyInputStream body = new BodyInputStream(buffer, bodyStart, bodyStart + 4, socket, 10);
+        assertEquals("0123456789", new String(body.readAllBytes(), StandardCharsets.US_ASCII));
+        assertEquals(0, body.remaining());
+        assertEquals(-1, body.read());
+
+        BodyInputStream truncated = new BodyInputStream(buffer, bodyStart, bodyStart + 4, new ByteArrayInputStream(new byte[2]), 10);
+        assertThrows(EOFException.class, truncated::readAllBytes);
+    }
+
+    @Test
+    public void testBodyStreamAndBuffering() {
+        /**
+         * Test a request whose body is still in the connection
+         * Expected: getBodyStream hands out the live stream once; without it, the body is read lazily for getBody
+         */
+        byte[] raw = "POST /upload HTTP/1.1\r\nContent-Length: 9\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        HttpRequestParser parser = new HttpRequestParser();
+        parser.parse(raw, 0, raw.length);
+        byte[] json = "{\"a\":10}".getBytes(StandardCharsets.US_ASCII);
+
+        Request streamed = new Request("127.0.0.1", parser.head(), new ByteArrayInputStream(json));
+        assertTrue(streamed.isBodyStreamed());
+        assertFalse(streamed.isBodyEmpty());
+        streamed.getBodyStream();
+        assertThrows(IllegalStateException.class, streamed::getBodyStream);
+        assertThrows(IllegalStateException.class, streamed::getBody);
+
+        Request buffered = new Request("127.0.0.1", parser.head(), new ByteArrayInputStream(json));
+        assertEquals(10, buffered.getBodyInt("a"));
+        assertFalse(buffered.isBodyStreamed());
+    }
+
+    @Test
+    public void testParamsAreMutable() {
+        /**
+         * Test getParams over path params bound as offsets
+         * Expected: a mutable map, whose changes the path param getters see
+         */
+        Request request = new Request("127.0.0.1", "GET", "/users/42", Map.of(), null);
+        request.setPathParams(new PathParams("/users/42", new String[]{"id"}, new int[]{7, 9}));
+
+        request.getParams().put("id", "43");
+        request.getParams().put("extra", "x");
+
+        assertEquals("43", request.getPathParam("id"));
+        assertEquals(43L, request.getPathParamAsLong("id", 0));
+        assertEquals("x", request.getParams().get("extra"));
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.angel.raa.middleware;
+
+import io.github.angel.raa.http.Request;
+import io.github.angel.raa.http.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticFileMiddlewareTest {
+
+    private static Response get(StaticFileMiddleware middleware, String path, Map<String, String> headers) {
+        return request(middleware, "GET", path, headers);
+    }
+
+    private static Response request(StaticFileMiddleware middleware, String method, String path, Map<String, String> headers) {
+        Response response = new Response();
+        boolean next = middleware.handle(new Request("127.0.0.1", method, path, headers, null), response, MiddlewareChain.of());
+        return next ? null : response;
+    }
+
+    @Test
+    public void testCacheAndInvalidation(@TempDir Path root) throws Exception {
+        /**
+         * Test serving a CSS file twice, with and without gzip, then changing it on disk
+         * Expected: a miss then hits, the gzip variant when accepted, and the new content once the watcher notices
+         */
+        String css = "body { color: red; }\n".repeat(50);
+        Files.writeString(root.resolve("app.css"), css);
+        try (StaticFileMiddleware middleware = new StaticFileMiddleware(root, 1024 * 1024)) {
+            Response first = get(middleware, "/app.css?v=1", Map.of());
+            assertEquals("text/css", first.getHeaders().get("Content-Type"));
+            assertTrue(first.getHeaders().get("ETag").matches("\"[0-9a-f]+-[0-9a-f]+\""));
+            assertNotNull(first.getHeaders().get("Last-Modified"));
+            assertTrue(first.build().endsWith("\r\n\r\n" + css));
+            assertEquals(1, middleware.getCacheMisses());
+
+            Response gzipped = get(middleware, "/app.css", Map.of("Accept-Encoding", "gzip, br"));
+            assertEquals("gzip", gzipped.getHeaders().get("Content-Encoding"));
+            assertEquals("Accept-Encoding", gzipped.getHeaders().get("Vary"));
+            assertEquals(1, middleware.getCacheHits());
+            assertTrue(middleware.getCacheSize() > css.length());
+
+            assertNull(get(middleware, "/../app.css", Map.of()));
+            assertNull(get(middleware, "/missing.css", Map.of()));
+
+            Files.writeString(root.resolve("app.css"), "body{}");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!get(middleware, "/app.css", Map.of()).build().endsWith("\r\n\r\nbody{}")) {
+                assertTrue(System.currentTimeMillis() < deadline, "La caché no se invalidó");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction(@TempDir Path root) throws IOException {
+        /**
+         * Test a cache that only fits two of three files
+         * Expected: the least recently used file is evicted and read again from disk
+         */
+        for (String name : new String[]{"a.bin", "b.bin", "c.bin"}) {
+            Files.write(root.resolve(name), new byte[400]);
+        }
+        try (StaticFileMiddleware middleware = new StaticFileMiddleware(root, 1000)) {
+            get(middleware, "/a.bin", Map.of());
+            get(middleware, "/b.bin", Map.of());
+            get(middleware, "/a.bin", Map.of()); // b pasa a ser el menos usado
+            get(middleware, "/c.bin", Map.of());
+            assertEquals(800, middleware.getCacheSize());
+            get(middleware, "/a.bin", Map.of());
+            assertEquals(2, middleware.getCacheHits());
+            get(middleware, "/b.bin", Map.of());
+            assertEquals(4, middleware.getCacheMisses());
+        }
+    }
+
+    @Test
+    public void testRangeRequests(@TempDir Path root) throws IOException {
+        /**
+         * Test single, multiple and unsatisfiable ranges, and an If-Range that no longer matches
+         * Expected: 206 with Content-Range, a multipart/byteranges body, 416, and the full file with 200
+         */
+        Files.writeString(root.resolve("report.txt"), "0123456789abcdefghij");
+        try (StaticFileMiddleware middleware = new StaticFileMiddleware(root, 0)) {
+            Response single = get(middleware, "/report.txt", Map.of("Range", "bytes=10-14"));
+            assertEquals(206, single.getStatus());
+            assertEquals("bytes 10-14/20", single.getHeaders().get("Content-Range"));
+            assertEquals("bytes", single.getHeaders().get("Accept-Ranges"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            single.writeTo(out);
+            assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("Content-Length: 5\r\n\r\nabcde"));
+
+            Response multiple = get(middleware, "/report.txt", Map.of("Range", "bytes=0-1,-2"));
+            String contentType = multiple.getHeaders().get("Content-Type");
+            assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+            String boundary = contentType.substring(contentType.indexOf('=') + 1);
+            out.reset();
+            multiple.writeTo(out);
+            String written = out.toString(StandardCharsets.UTF_8);
+            String body = "--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 0-1/20\r\n\r\n01"
+                    + "\r\n--" + boundary + "\r\nContent-Type: text/plain\r\nContent-Range: bytes 18-19/20\r\n\r\nij"
+                    + "\r\n--" + boundary + "--\r\n";
+            assertTrue(written.endsWith("Content-Length: " + body.length() + "\r\n\r\n" + body));
+
+            Response unsatisfiable = get(middleware, "/report.txt", Map.of("Range", "bytes=50-60"));
+            assertEquals(416, unsatisfiable.getStatus());
+            assertEquals("bytes */20", unsatisfiable.getHeaders().get("Content-Range"));
+
+            Response stale = get(middleware, "/report.txt", Map.of("Range", "bytes=0-1", "If-Range", "\"old\""));
+            assertEquals(200, stale.getStatus());
+            assertNull(stale.getHeaders().get("Content-Range"));
+        }
+    }
+
+    @Test
+    public void testHeadRequests(@TempDir Path root) throws IOException {
+        /**
+         * Test HEAD for an uncached file, a cached file with its gzip variant and a range
+         * Expected: the same status and headers as GET, with Content-Length and validators but no body
+         */
+        String css = "body { color: red; }\n".repeat(50);
+        Files.writeString(root.resolve("app.css"), css);
+        try (StaticFileMiddleware middleware = new StaticFileMiddleware(root, 1024 * 1024)) {
+            Response head = request(middleware, "HEAD", "/app.css", Map.of());
+            String built = head.build();
+            assertTrue(built.contains("Content-Length: " + css.length() + "\r\n"));
+            assertTrue(built.contains("ETag: "));
+            assertTrue(built.contains("Last-Modified: "));
+            assertTrue(built.endsWith("\r\n\r\n"));
+            assertEquals(0, middleware.getCacheSize()); // HEAD no lee el archivo
+
+            get(middleware, "/app.css", Map.of());
+            Response cached = request(middleware, "HEAD", "/app.css", Map.of("Accept-Encoding", "gzip"));
+            built = cached.build();
+            assertEquals(1, middleware.getCacheHits());
+            assertTrue(built.contains("Content-Encoding: gzip\r\n"));
+            assertTrue(built.endsWith("\r\n\r\n"));
+
+            Response range = request(middleware, "HEAD", "/app.css", Map.of("Range", "bytes=0-9"));
+            assertEquals(206, range.getStatus());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            range.writeTo(out);
+            String written = out.toString(StandardCharsets.UTF_8);
+            assertTrue(written.contains("Content-Range: bytes 0-9/" + css.length() + "\r\n"));
+            assertTrue(written.endsWith("Content-Length: 10\r\n\r\n"));
+        }
+    }
+}
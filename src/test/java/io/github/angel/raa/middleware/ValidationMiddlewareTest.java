@@ -0,0 +1,69 @@
+package io.github.angel.raa.middleware;
+
+import io.github.angel.raa.http.HttpRequestParser;
+import io.github.angel.raa.http.Request;
+import io.github.angel.raa.http.Response;
+import jakarta.validation.constraints.NotBlank;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationMiddlewareTest {
+
+    public static class User {
+        @NotBlank
+        public String name;
+    }
+
+    private final ValidationMiddleware<User> middleware = new ValidationMiddleware<>(User.class);
+
+    private Response validate(String body) {
+        byte[] raw = "POST /users HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        HttpRequestParser parser = new HttpRequestParser();
+        parser.parse(raw, 0, raw.length);
+        Request request = new Request("127.0.0.1", parser.head(), body.getBytes(StandardCharsets.UTF_8));
+        Response response = new Response();
+        return middleware.handle(request, response, MiddlewareChain.of()) ? null : response;
+    }
+
+    private static String written(Response response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMissingBody() throws IOException {
+        /**
+         * Test an empty body and an empty JSON object, with and without whitespace
+         * Expected: 400 "El cuerpo de la solicitud es obligatorio" for all of them
+         */
+        for (String body : new String[]{"", "{}", " { \n } "}) {
+            Response response = validate(body);
+            assertNotNull(response, body);
+            assertEquals(400, response.getStatus());
+            assertTrue(written(response).contains("El cuerpo de la solicitud es obligatorio"), body);
+        }
+    }
+
+    @Test
+    public void testInvalidAndValidBody() throws IOException {
+        /**
+         * Test a body that breaks a constraint, a body that is not JSON and a valid body
+         * Expected: 400 with the violated property, 400 for the malformed body, and the chain continues for the valid one
+         */
+        Response blank = validate("{\"name\":\"\"}");
+        assertEquals(400, blank.getStatus());
+        assertTrue(written(blank).contains("\"name\""));
+
+        Response malformed = validate("{\"name\":");
+        assertEquals(400, malformed.getStatus());
+        assertTrue(written(malformed).contains("Error al procesar los datos de entrada"));
+
+        assertNull(validate("{\"name\":\"Ana\"}"));
+    }
+}